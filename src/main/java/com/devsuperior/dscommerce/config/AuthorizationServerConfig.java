@@ -1,9 +1,5 @@
 package com.devsuperior.dscommerce.config;
 
-import java.security.KeyPair;
-import java.security.KeyPairGenerator;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
 import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
@@ -13,17 +9,20 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
 import org.springframework.security.oauth2.core.OAuth2Token;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.authorization.InMemoryOAuth2AuthorizationConsentService;
-import org.springframework.security.oauth2.server.authorization.InMemoryOAuth2AuthorizationService;
 import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationConsentService;
 import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
 import org.springframework.security.oauth2.server.authorization.authentication.OAuth2ClientAuthenticationToken;
@@ -47,8 +46,8 @@ import org.springframework.security.web.SecurityFilterChain;
 import com.devsuperior.dscommerce.config.customgrant.CustomPasswordAuthenticationConverter;
 import com.devsuperior.dscommerce.config.customgrant.CustomPasswordAuthenticationProvider;
 import com.devsuperior.dscommerce.config.customgrant.CustomUserAuthorities;
+import com.devsuperior.dscommerce.config.customgrant.OAuth2TokenErrorResponseHandler;
 import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
 
@@ -64,9 +63,48 @@ public class AuthorizationServerConfig {
 	@Value("${security.jwt.duration}")
 	private Integer jwtDurationSeconds;
 
+	@Value("${security.authorization.max-size}")
+	private Integer authorizationMaxSize;
+
+	@Value("${security.authorization.sweep-interval}")
+	private Integer authorizationSweepIntervalSeconds;
+
+	@Value("${security.password.bcrypt-strength}")
+	private Integer bcryptStrength;
+
+	@Value("${security.password.verification.pool-size}")
+	private Integer passwordVerificationPoolSize;
+
+	@Value("${security.password.verification.queue-capacity}")
+	private Integer passwordVerificationQueueCapacity;
+
+	@Value("${security.password.verification.timeout-ms}")
+	private Long passwordVerificationTimeoutMillis;
+
+	@Value("${security.jwt.algorithm}")
+	private SignatureAlgorithm jwtAlgorithm;
+
+	@Value("${security.jwt.keystore.location}")
+	private String keyStoreLocation;
+
+	@Value("${security.jwt.keystore.type}")
+	private String keyStoreType;
+
+	@Value("${security.jwt.keystore.password}")
+	private String keyStorePassword;
+
+	@Value("${security.jwt.keystore.active-alias}")
+	private String keyStoreActiveAlias;
+
+	@Autowired
+	private ResourceLoader resourceLoader;
+
 	@Autowired
 	private UserDetailsService userDetailsService;
 
+	@Autowired
+	private UserDetailsPasswordService userDetailsPasswordService;
+
 	@Bean
 	@Order(2)
 	public SecurityFilterChain asSecurityFilterChain(HttpSecurity http) throws Exception {
@@ -77,7 +115,8 @@ public class AuthorizationServerConfig {
 		http.getConfigurer(OAuth2AuthorizationServerConfigurer.class)
 			.tokenEndpoint(tokenEndpoint -> tokenEndpoint
 				.accessTokenRequestConverter(new CustomPasswordAuthenticationConverter())
-				.authenticationProvider(new CustomPasswordAuthenticationProvider(authorizationService(), tokenGenerator(), userDetailsService, passwordEncoder())));
+				.errorResponseHandler(new OAuth2TokenErrorResponseHandler())
+				.authenticationProvider(new CustomPasswordAuthenticationProvider(authorizationService(), tokenGenerator(), userDetailsService, new BoundedPasswordEncoder(passwordEncoder(), passwordVerificationExecutor()), userDetailsPasswordService)));
 
 		http.oauth2ResourceServer(oauth2ResourceServer -> oauth2ResourceServer.jwt(Customizer.withDefaults()));
 		// @formatter:on
@@ -87,7 +126,7 @@ public class AuthorizationServerConfig {
 
 	@Bean
 	public OAuth2AuthorizationService authorizationService() {
-		return new InMemoryOAuth2AuthorizationService();
+		return new BoundedOAuth2AuthorizationService(authorizationMaxSize, authorizationSweepIntervalSeconds);
 	}
 
 	@Bean
@@ -97,7 +136,13 @@ public class AuthorizationServerConfig {
 
 	@Bean
 	public PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+		return new BCryptPasswordEncoder(bcryptStrength);
+	}
+
+	@Bean
+	public PasswordVerificationExecutor passwordVerificationExecutor() {
+		int poolSize = passwordVerificationPoolSize > 0 ? passwordVerificationPoolSize : Runtime.getRuntime().availableProcessors();
+		return new PasswordVerificationExecutor(poolSize, passwordVerificationQueueCapacity, passwordVerificationTimeoutMillis);
 	}
 
 	@Bean
@@ -140,7 +185,8 @@ public class AuthorizationServerConfig {
 
 	@Bean
 	public OAuth2TokenGenerator<? extends OAuth2Token> tokenGenerator() {
-		NimbusJwtEncoder jwtEncoder = new NimbusJwtEncoder(jwkSource());
+		JWKSet signingKeySet = signingKeys().getSigningKeySet();
+		NimbusJwtEncoder jwtEncoder = new NimbusJwtEncoder((jwkSelector, securityContext) -> jwkSelector.select(signingKeySet));
 		JwtGenerator jwtGenerator = new JwtGenerator(jwtEncoder);
 		jwtGenerator.setJwtCustomizer(tokenCustomizer());
 		OAuth2AccessTokenGenerator accessTokenGenerator = new OAuth2AccessTokenGenerator();
@@ -150,6 +196,7 @@ public class AuthorizationServerConfig {
 	@Bean
 	public OAuth2TokenCustomizer<JwtEncodingContext> tokenCustomizer() {
 		return context -> {
+			context.getJwsHeader().algorithm(jwtAlgorithm);
 			OAuth2ClientAuthenticationToken principal = context.getPrincipal();
 			CustomUserAuthorities user = (CustomUserAuthorities) principal.getDetails();
 			List<String> authorities = user.getAuthorities().stream().map(x -> x.getAuthority()).toList();
@@ -169,28 +216,17 @@ public class AuthorizationServerConfig {
 	}
 
 	@Bean
-	public JWKSource<SecurityContext> jwkSource() {
-		RSAKey rsaKey = generateRsa();
-		JWKSet jwkSet = new JWKSet(rsaKey);
-		return (jwkSelector, securityContext) -> jwkSelector.select(jwkSet);
-	}
-
-	private static RSAKey generateRsa() {
-		KeyPair keyPair = generateRsaKey();
-		RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
-		RSAPrivateKey privateKey = (RSAPrivateKey) keyPair.getPrivate();
-		return new RSAKey.Builder(publicKey).privateKey(privateKey).keyID(UUID.randomUUID().toString()).build();
+	public SigningKeys signingKeys() {
+		if (keyStoreLocation.isBlank()) {
+			return SigningKeys.generate(jwtAlgorithm);
+		}
+		Resource location = resourceLoader.getResource(keyStoreLocation);
+		return SigningKeys.load(location, keyStoreType, keyStorePassword.toCharArray(), keyStoreActiveAlias, jwtAlgorithm);
 	}
 
-	private static KeyPair generateRsaKey() {
-		KeyPair keyPair;
-		try {
-			KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
-			keyPairGenerator.initialize(2048);
-			keyPair = keyPairGenerator.generateKeyPair();
-		} catch (Exception ex) {
-			throw new IllegalStateException(ex);
-		}
-		return keyPair;
+	@Bean
+	public JWKSource<SecurityContext> jwkSource() {
+		JWKSet jwkSet = signingKeys().getVerificationKeys();
+		return (jwkSelector, securityContext) -> jwkSelector.select(jwkSet);
 	}
 }
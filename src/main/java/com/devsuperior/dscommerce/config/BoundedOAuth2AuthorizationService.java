@@ -0,0 +1,267 @@
+package com.devsuperior.dscommerce.config;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.security.oauth2.core.OAuth2Token;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.endpoint.OidcParameterNames;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationCode;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.util.Assert;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-memory authorization store bounded by size. Each authorization expires with the last of
+ * its tokens; expired entries are dropped on lookup and by a background sweep, and the oldest
+ * entry is evicted when the store is full. Token values are indexed so lookups do not scan.
+ */
+public class BoundedOAuth2AuthorizationService implements OAuth2AuthorizationService {
+
+	private final int maxSize;
+	private final long sweepIntervalSeconds;
+	private final Clock clock;
+	private final LinkedHashMap<String, Entry> authorizations;
+	private final Map<String, String> idsByToken = new HashMap<>();
+	private ScheduledExecutorService sweeper;
+	private long evictions;
+	private long expirations;
+
+	public BoundedOAuth2AuthorizationService(int maxSize, long sweepIntervalSeconds) {
+		this(maxSize, sweepIntervalSeconds, Clock.systemUTC());
+	}
+
+	public BoundedOAuth2AuthorizationService(int maxSize, long sweepIntervalSeconds, Clock clock) {
+		Assert.isTrue(maxSize > 0, "maxSize must be positive");
+		Assert.notNull(clock, "clock cannot be null");
+		this.maxSize = maxSize;
+		this.sweepIntervalSeconds = sweepIntervalSeconds;
+		this.clock = clock;
+		this.authorizations = new LinkedHashMap<>(16, 0.75f, false) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				boolean full = size() > BoundedOAuth2AuthorizationService.this.maxSize;
+				if (full) {
+					unindex(eldest.getValue().authorization);
+					evictions++;
+				}
+				return full;
+			}
+		};
+	}
+
+	@PostConstruct
+	public void start() {
+		if (sweepIntervalSeconds <= 0) {
+			return;
+		}
+		sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "authorization-sweeper");
+			thread.setDaemon(true);
+			return thread;
+		});
+		sweeper.scheduleWithFixedDelay(this::sweep, sweepIntervalSeconds, sweepIntervalSeconds, TimeUnit.SECONDS);
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (sweeper != null) {
+			sweeper.shutdownNow();
+		}
+	}
+
+	@Override
+	public synchronized void save(OAuth2Authorization authorization) {
+		Assert.notNull(authorization, "authorization cannot be null");
+		Entry previous = authorizations.remove(authorization.getId());
+		if (previous != null) {
+			unindex(previous.authorization);
+		}
+		Instant expiresAt = expiresAt(authorization);
+		if (expiresAt != null && !expiresAt.isAfter(clock.instant())) {
+			return;
+		}
+		index(authorization);
+		authorizations.put(authorization.getId(), new Entry(authorization, expiresAt));
+	}
+
+	@Override
+	public synchronized void remove(OAuth2Authorization authorization) {
+		Assert.notNull(authorization, "authorization cannot be null");
+		Entry entry = authorizations.remove(authorization.getId());
+		if (entry != null) {
+			unindex(entry.authorization);
+		}
+	}
+
+	@Override
+	public synchronized OAuth2Authorization findById(String id) {
+		Assert.hasText(id, "id cannot be empty");
+		return live(id);
+	}
+
+	@Override
+	public synchronized OAuth2Authorization findByToken(String token, OAuth2TokenType tokenType) {
+		Assert.hasText(token, "token cannot be empty");
+		String id = idsByToken.get(token);
+		if (id == null) {
+			return null;
+		}
+		OAuth2Authorization authorization = live(id);
+		return (authorization != null && hasToken(authorization, token, tokenType)) ? authorization : null;
+	}
+
+	/**
+	 * Drops every expired authorization. Returns how many were removed.
+	 */
+	public synchronized int sweep() {
+		Instant now = clock.instant();
+		int removed = 0;
+		Iterator<Entry> iterator = authorizations.values().iterator();
+		while (iterator.hasNext()) {
+			Entry entry = iterator.next();
+			if (entry.isExpired(now)) {
+				iterator.remove();
+				unindex(entry.authorization);
+				removed++;
+			}
+		}
+		expirations += removed;
+		return removed;
+	}
+
+	public synchronized int size() {
+		return authorizations.size();
+	}
+
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	public synchronized long getExpirations() {
+		return expirations;
+	}
+
+	private OAuth2Authorization live(String id) {
+		Entry entry = authorizations.get(id);
+		if (entry == null) {
+			return null;
+		}
+		if (entry.isExpired(clock.instant())) {
+			authorizations.remove(id);
+			unindex(entry.authorization);
+			expirations++;
+			return null;
+		}
+		return entry.authorization;
+	}
+
+	private void index(OAuth2Authorization authorization) {
+		for (String value : tokenValues(authorization)) {
+			idsByToken.put(value, authorization.getId());
+		}
+	}
+
+	private void unindex(OAuth2Authorization authorization) {
+		for (String value : tokenValues(authorization)) {
+			idsByToken.remove(value, authorization.getId());
+		}
+	}
+
+	private static List<String> tokenValues(OAuth2Authorization authorization) {
+		List<String> values = new ArrayList<>(5);
+		String state = authorization.getAttribute(OAuth2ParameterNames.STATE);
+		if (state != null) {
+			values.add(state);
+		}
+		for (OAuth2Authorization.Token<?> token : tokens(authorization)) {
+			values.add(token.getToken().getTokenValue());
+		}
+		return values;
+	}
+
+	private static List<OAuth2Authorization.Token<?>> tokens(OAuth2Authorization authorization) {
+		List<OAuth2Authorization.Token<?>> tokens = new ArrayList<>(4);
+		addIfPresent(tokens, authorization.getToken(OAuth2AuthorizationCode.class));
+		addIfPresent(tokens, authorization.getAccessToken());
+		addIfPresent(tokens, authorization.getRefreshToken());
+		addIfPresent(tokens, authorization.getToken(OidcIdToken.class));
+		return tokens;
+	}
+
+	private static void addIfPresent(List<OAuth2Authorization.Token<?>> tokens, OAuth2Authorization.Token<?> token) {
+		if (token != null) {
+			tokens.add(token);
+		}
+	}
+
+	private static Instant expiresAt(OAuth2Authorization authorization) {
+		Instant expiresAt = null;
+		for (OAuth2Authorization.Token<?> token : tokens(authorization)) {
+			Instant tokenExpiresAt = token.getToken().getExpiresAt();
+			if (tokenExpiresAt == null) {
+				return null;
+			}
+			if (expiresAt == null || tokenExpiresAt.isAfter(expiresAt)) {
+				expiresAt = tokenExpiresAt;
+			}
+		}
+		return expiresAt;
+	}
+
+	private static boolean hasToken(OAuth2Authorization authorization, String token, OAuth2TokenType tokenType) {
+		if (tokenType == null) {
+			return token.equals(authorization.getAttribute(OAuth2ParameterNames.STATE))
+					|| tokens(authorization).stream().anyMatch(x -> token.equals(x.getToken().getTokenValue()));
+		}
+		if (OAuth2ParameterNames.STATE.equals(tokenType.getValue())) {
+			return token.equals(authorization.getAttribute(OAuth2ParameterNames.STATE));
+		}
+		if (OAuth2ParameterNames.CODE.equals(tokenType.getValue())) {
+			return matches(authorization.getToken(OAuth2AuthorizationCode.class), token);
+		}
+		if (OAuth2TokenType.ACCESS_TOKEN.equals(tokenType)) {
+			return matches(authorization.getAccessToken(), token);
+		}
+		if (OAuth2TokenType.REFRESH_TOKEN.equals(tokenType)) {
+			return matches(authorization.getRefreshToken(), token);
+		}
+		if (OidcParameterNames.ID_TOKEN.equals(tokenType.getValue())) {
+			return matches(authorization.getToken(OidcIdToken.class), token);
+		}
+		return false;
+	}
+
+	private static boolean matches(OAuth2Authorization.Token<? extends OAuth2Token> authorizationToken, String token) {
+		return authorizationToken != null && Objects.equals(authorizationToken.getToken().getTokenValue(), token);
+	}
+
+	private static class Entry {
+		private final OAuth2Authorization authorization;
+		private final Instant expiresAt;
+
+		Entry(OAuth2Authorization authorization, Instant expiresAt) {
+			this.authorization = authorization;
+			this.expiresAt = expiresAt;
+		}
+
+		boolean isExpired(Instant now) {
+			return expiresAt != null && !expiresAt.isAfter(now);
+		}
+	}
+}
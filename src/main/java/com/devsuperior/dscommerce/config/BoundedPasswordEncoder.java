@@ -0,0 +1,32 @@
+package com.devsuperior.dscommerce.config;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Password encoder whose hashing runs on a {@link PasswordVerificationExecutor}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+	private final PasswordEncoder delegate;
+	private final PasswordVerificationExecutor executor;
+
+	public BoundedPasswordEncoder(PasswordEncoder delegate, PasswordVerificationExecutor executor) {
+		this.delegate = delegate;
+		this.executor = executor;
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return executor.execute(() -> delegate.encode(rawPassword));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return executor.execute(() -> delegate.matches(rawPassword, encodedPassword));
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return delegate.upgradeEncoding(encodedPassword);
+	}
+}
@@ -0,0 +1,57 @@
+package com.devsuperior.dscommerce.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.devsuperior.dscommerce.dto.CategorySnapshotDTO;
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.services.IdempotencyService;
+import com.devsuperior.dscommerce.util.ExpiringCache;
+
+@Configuration
+public class CacheConfig {
+
+	@Value("${category.cache.ttl}")
+	private Integer categoryCacheTtlSeconds;
+
+	@Value("${product.cache.max-size}")
+	private Integer productCacheMaxSize;
+
+	@Value("${product.cache.ttl}")
+	private Integer productCacheTtlSeconds;
+
+	@Value("${product.count-cache.max-size}")
+	private Integer productCountCacheMaxSize;
+
+	@Value("${product.count-cache.ttl}")
+	private Integer productCountCacheTtlSeconds;
+
+	@Value("${idempotency.cache.max-size}")
+	private Integer idempotencyCacheMaxSize;
+
+	@Value("${idempotency.cache.ttl}")
+	private Integer idempotencyCacheTtlSeconds;
+
+	@Bean
+	public ExpiringCache<String, CategorySnapshotDTO> categoryCache() {
+		return new ExpiringCache<>(1, Duration.ofSeconds(categoryCacheTtlSeconds));
+	}
+
+	@Bean
+	public ExpiringCache<Long, ProductDTO> productCache() {
+		return new ExpiringCache<>(productCacheMaxSize, Duration.ofSeconds(productCacheTtlSeconds));
+	}
+
+	@Bean
+	public ExpiringCache<String, Long> productCountCache() {
+		return new ExpiringCache<>(productCountCacheMaxSize, Duration.ofSeconds(productCountCacheTtlSeconds));
+	}
+
+	@Bean
+	public ExpiringCache<String, IdempotencyService.Entry> idempotencyCache() {
+		return new ExpiringCache<>(idempotencyCacheMaxSize, Duration.ofSeconds(idempotencyCacheTtlSeconds));
+	}
+}
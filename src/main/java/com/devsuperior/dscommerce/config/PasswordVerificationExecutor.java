@@ -0,0 +1,125 @@
+package com.devsuperior.dscommerce.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.devsuperior.dscommerce.services.exceptions.ServiceUnavailableException;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Dedicated, size-bounded pool for password hashing so a login burst cannot take every
+ * request thread. When the pool and its queue are full, callers are rejected right away.
+ */
+public class PasswordVerificationExecutor {
+
+	private final ThreadPoolExecutor executor;
+	private final long timeoutMillis;
+	private final LongAdder completed = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder timedOut = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final AtomicLong maxNanos = new AtomicLong();
+
+	public PasswordVerificationExecutor(int poolSize, int queueCapacity, long timeoutMillis) {
+		this.timeoutMillis = timeoutMillis;
+		AtomicInteger threadCount = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+					Thread thread = new Thread(runnable, "password-verifier-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	@PreDestroy
+	public void stop() {
+		executor.shutdownNow();
+	}
+
+	public int getPoolSize() {
+		return executor.getMaximumPoolSize();
+	}
+
+	public int getActiveCount() {
+		return executor.getActiveCount();
+	}
+
+	public int getQueueDepth() {
+		return executor.getQueue().size();
+	}
+
+	public int getQueueCapacity() {
+		return executor.getQueue().size() + executor.getQueue().remainingCapacity();
+	}
+
+	public long getCompleted() {
+		return completed.sum();
+	}
+
+	public long getRejected() {
+		return rejected.sum();
+	}
+
+	public long getTimedOut() {
+		return timedOut.sum();
+	}
+
+	public long getTotalNanos() {
+		return totalNanos.sum();
+	}
+
+	public long getMaxNanos() {
+		return maxNanos.get();
+	}
+
+	/**
+	 * Runs the task on the pool and waits for it. Throws ServiceUnavailableException when the
+	 * queue is full or the task does not finish within the timeout.
+	 */
+	public <T> T execute(Supplier<T> task) {
+		long submittedAt = System.nanoTime();
+		Future<T> future;
+		try {
+			future = executor.submit(() -> {
+				T result = task.get();
+				record(System.nanoTime() - submittedAt);
+				return result;
+			});
+		} catch (RejectedExecutionException e) {
+			rejected.increment();
+			throw new ServiceUnavailableException("Muitas autenticações em andamento, tente novamente");
+		}
+		try {
+			return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			timedOut.increment();
+			throw new ServiceUnavailableException("Tempo de verificação de senha esgotado, tente novamente");
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new ServiceUnavailableException("Verificação de senha interrompida");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	private void record(long nanos) {
+		completed.increment();
+		totalNanos.add(nanos);
+		maxNanos.accumulateAndGet(nanos, Math::max);
+	}
+}
@@ -0,0 +1,130 @@
+package com.devsuperior.dscommerce.config;
+
+import java.io.InputStream;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.core.io.Resource;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+
+/**
+ * JWT signing keys. Tokens are signed with the single active key, while every key in the set,
+ * active or retired, is published for verification so tokens signed before a rotation stay valid.
+ * The active key must match the signing algorithm (RS256 or ES256).
+ */
+public class SigningKeys {
+
+	private final SignatureAlgorithm algorithm;
+	private final JWK signingKey;
+	private final JWKSet verificationKeys;
+
+	private SigningKeys(SignatureAlgorithm algorithm, JWK signingKey, JWKSet verificationKeys) {
+		this.algorithm = algorithm;
+		this.signingKey = signingKey;
+		this.verificationKeys = verificationKeys;
+	}
+
+	/**
+	 * Loads every key pair of the keystore, using the alias as key id. The active alias signs;
+	 * the other aliases are kept as public keys for verification only.
+	 */
+	public static SigningKeys load(Resource location, String type, char[] password, String activeAlias,
+			SignatureAlgorithm algorithm) {
+		try (InputStream in = location.getInputStream()) {
+			KeyStore keyStore = KeyStore.getInstance(type);
+			keyStore.load(in, password);
+			return fromKeyStore(keyStore, password, activeAlias, algorithm);
+		} catch (IllegalStateException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IllegalStateException("Could not load JWT signing keys from " + location, e);
+		}
+	}
+
+	public static SigningKeys fromKeyStore(KeyStore keyStore, char[] password, String activeAlias,
+			SignatureAlgorithm algorithm) throws Exception {
+		JWK signingKey = null;
+		List<JWK> verificationKeys = new ArrayList<>();
+		for (String alias : Collections.list(keyStore.aliases())) {
+			if (keyStore.getCertificate(alias) == null) {
+				continue;
+			}
+			JWK key = JWK.load(keyStore, alias, password);
+			if (alias.equals(activeAlias)) {
+				if (!key.isPrivate()) {
+					throw new IllegalStateException("Active signing key '" + activeAlias + "' has no private key");
+				}
+				if (!supports(key, algorithm)) {
+					throw new IllegalStateException("Active signing key '" + activeAlias + "' cannot sign " + algorithm.getName());
+				}
+				signingKey = key;
+				verificationKeys.add(0, key.toPublicJWK());
+			} else {
+				verificationKeys.add(key.toPublicJWK());
+			}
+		}
+		if (signingKey == null) {
+			throw new IllegalStateException("Active signing key '" + activeAlias + "' not found");
+		}
+		return new SigningKeys(algorithm, signingKey, new JWKSet(verificationKeys));
+	}
+
+	/**
+	 * A throwaway key for local runs and tests; tokens do not survive a restart.
+	 */
+	public static SigningKeys generate(SignatureAlgorithm algorithm) {
+		try {
+			JWK key = switch (algorithm) {
+				case RS256 -> new RSAKeyGenerator(2048)
+						.keyID(UUID.randomUUID().toString())
+						.keyUse(KeyUse.SIGNATURE)
+						.generate();
+				case ES256 -> new ECKeyGenerator(Curve.P_256)
+						.keyID(UUID.randomUUID().toString())
+						.keyUse(KeyUse.SIGNATURE)
+						.generate();
+				default -> throw new IllegalArgumentException("Unsupported signing algorithm " + algorithm.getName());
+			};
+			return new SigningKeys(algorithm, key, new JWKSet(key.toPublicJWK()));
+		} catch (JOSEException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static boolean supports(JWK key, SignatureAlgorithm algorithm) {
+		return switch (algorithm) {
+			case RS256 -> key instanceof RSAKey;
+			case ES256 -> key instanceof ECKey ecKey && Curve.P_256.equals(ecKey.getCurve());
+			default -> false;
+		};
+	}
+
+	public SignatureAlgorithm getAlgorithm() {
+		return algorithm;
+	}
+
+	public JWK getSigningKey() {
+		return signingKey;
+	}
+
+	public JWKSet getSigningKeySet() {
+		return new JWKSet(signingKey);
+	}
+
+	public JWKSet getVerificationKeys() {
+		return verificationKeys;
+	}
+}
@@ -0,0 +1,40 @@
+package com.devsuperior.dscommerce.controllers;
+
+import com.devsuperior.dscommerce.config.PasswordVerificationExecutor;
+import com.devsuperior.dscommerce.dto.CacheStatsDTO;
+import com.devsuperior.dscommerce.dto.PasswordVerificationStatsDTO;
+import com.devsuperior.dscommerce.util.ExpiringCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping(value = "/metrics")
+public class MetricsController {
+
+    @Autowired
+    private Map<String, ExpiringCache<?, ?>> caches;
+
+    @Autowired
+    private PasswordVerificationExecutor passwordVerificationExecutor;
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(value = "/caches")
+    public ResponseEntity<List<CacheStatsDTO>> caches() {
+        List<CacheStatsDTO> dto = caches.entrySet().stream()
+                .map(x -> new CacheStatsDTO(x.getKey(), x.getValue())).toList();
+        return ResponseEntity.ok(dto);
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(value = "/password-verification")
+    public ResponseEntity<PasswordVerificationStatsDTO> passwordVerification() {
+        return ResponseEntity.ok(new PasswordVerificationStatsDTO(passwordVerificationExecutor));
+    }
+}
@@ -1,7 +1,10 @@
 package com.devsuperior.dscommerce.controllers;
 
+import com.devsuperior.dscommerce.dto.CursorPageDTO;
 import com.devsuperior.dscommerce.dto.OrderDTO;
 import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.services.IdempotencyService;
+import com.devsuperior.dscommerce.services.OrderIngestionPipeline;
 import com.devsuperior.dscommerce.services.OrderService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,6 +22,12 @@ public class OrderController {
     @Autowired
     private OrderService service;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private OrderIngestionPipeline ingestionPipeline;
+
     @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_CLIENT')")
     @GetMapping(value = "/{id}")
     public ResponseEntity<OrderDTO>  findById(@PathVariable Long id) {
@@ -26,12 +35,27 @@ public class OrderController {
         return ResponseEntity.ok(dto);
     }
 
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_CLIENT')")
+    @GetMapping(value = "/me")
+    public ResponseEntity<CursorPageDTO<OrderDTO>> findMine(@RequestParam(name = "after", defaultValue = "") String after,
+                                                            @RequestParam(name = "size", defaultValue = "12") Integer size) {
+        CursorPageDTO<OrderDTO> dto = service.findMine(after, size);
+        return ResponseEntity.ok(dto);
+    }
+
     @PreAuthorize("hasRole('ROLE_CLIENT')")
     @PostMapping
-    public ResponseEntity<OrderDTO> insert(@Valid @RequestBody OrderDTO dto) {
-        dto = service.insert(dto);
+    public ResponseEntity<OrderDTO> insert(@RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+                                           @Valid @RequestBody OrderDTO dto) {
+        OrderDTO result = (idempotencyKey == null)
+                ? insert(dto)
+                : idempotencyService.execute("orders", idempotencyKey, dto, () -> insert(dto));
         URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
-                .buildAndExpand(dto.getId()).toUri();
-        return ResponseEntity.created(uri).body(dto);
+                .buildAndExpand(result.getId()).toUri();
+        return ResponseEntity.created(uri).body(result);
+    }
+
+    private OrderDTO insert(OrderDTO dto) {
+        return ingestionPipeline.isEnabled() ? ingestionPipeline.insert(dto) : service.insert(dto);
     }
 }
@@ -1,35 +1,86 @@
 package com.devsuperior.dscommerce.controllers;
 
+import com.devsuperior.dscommerce.dto.CursorPageDTO;
+import com.devsuperior.dscommerce.dto.ProductBatchDTO;
+import com.devsuperior.dscommerce.dto.ProductCountDTO;
 import com.devsuperior.dscommerce.dto.ProductDTO;
 import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.dto.ProductVersionDTO;
 import com.devsuperior.dscommerce.services.ProductService;
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.util.List;
 
 @RestController
 @RequestMapping(value = "/products")
 public class ProductController {
 
+    private static final String[] PAGE_PARAMS = {"name", "withTotal", "page", "size", "sort", "after"};
+    private static final String[] CURSOR_CONFLICTS = {"ids", "page", "withTotal"};
+
     @Autowired
     private ProductService service;
 
     @GetMapping(value = "/{id}")
-    public ResponseEntity<ProductDTO>  findById(@PathVariable Long id) {
+    public ResponseEntity<ProductDTO>  findById(@PathVariable Long id, ServletWebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            // answer 304 from the version alone, without loading the product and its categories;
+            // checked on a response-less request so no validator headers are written yet
+            ProductVersionDTO version = service.findVersion(id);
+            if (new ServletWebRequest(request.getRequest()).checkNotModified(version.getETag(), version.getLastModified())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(version.getETag()).lastModified(version.getLastModified()).build();
+            }
+        }
         ProductDTO dto = service.findById(id);
-        return ResponseEntity.ok(dto);
+        ProductVersionDTO version = new ProductVersionDTO(dto);
+        return ResponseEntity.ok().eTag(version.getETag()).lastModified(version.getLastModified()).body(dto);
     }
 
     @GetMapping
-    public ResponseEntity<Page<ProductMinDTO>> findAll(@RequestParam(name = "name", defaultValue = "") String name, Pageable pageable) {
-        Page<ProductMinDTO> dto = service.findAll(name,pageable);
+    public ResponseEntity<Slice<ProductMinDTO>> findAll(@RequestParam(name = "name", defaultValue = "") String name,
+                                                        @RequestParam(name = "withTotal", defaultValue = "true") Boolean withTotal,
+                                                        Pageable pageable, WebRequest request) {
+        rejectParams(request, "Use /products/cursor para paginação por cursor", "after");
+        Slice<ProductMinDTO> dto = withTotal ? service.findAll(name, pageable) : service.findAllSlice(name, pageable);
+        return ResponseEntity.ok(dto);
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<ProductBatchDTO> findAllByIds(@RequestParam(name = "ids") List<Long> ids, WebRequest request) {
+        rejectParams(request, "Parâmetro ids não pode ser combinado com busca ou paginação", PAGE_PARAMS);
+        ProductBatchDTO dto = service.findAllByIds(ids);
+        return ResponseEntity.ok(dto);
+    }
+
+    @GetMapping(value = "/count")
+    public ResponseEntity<ProductCountDTO> count(@RequestParam(name = "name", defaultValue = "") String name) {
+        ProductCountDTO dto = service.count(name);
+        return ResponseEntity.ok(dto);
+    }
+
+    @GetMapping(value = "/cursor")
+    public ResponseEntity<CursorPageDTO<ProductMinDTO>> findAllByCursor(
+            @RequestParam(name = "name", defaultValue = "") String name,
+            @RequestParam(name = "sort", defaultValue = "id") String sort,
+            @RequestParam(name = "after", defaultValue = "") String after,
+            @RequestParam(name = "size", defaultValue = "12") Integer size,
+            WebRequest request) {
+        rejectParams(request, "Paginação por cursor não aceita ids, page ou withTotal", CURSOR_CONFLICTS);
+        CursorPageDTO<ProductMinDTO> dto = service.findAllByCursor(name, sort, after, size);
         return ResponseEntity.ok(dto);
     }
 
@@ -53,4 +104,12 @@ public class ProductController {
         service.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static void rejectParams(WebRequest request, String message, String... names) {
+        for (String name : names) {
+            if (request.getParameter(name) != null) {
+                throw new BadRequestException(message);
+            }
+        }
+    }
 }
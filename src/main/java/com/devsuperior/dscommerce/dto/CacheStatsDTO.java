@@ -0,0 +1,56 @@
+package com.devsuperior.dscommerce.dto;
+
+import com.devsuperior.dscommerce.util.ExpiringCache;
+
+public class CacheStatsDTO {
+    private String name;
+    private Integer size;
+    private Integer maxSize;
+    private Long hits;
+    private Long misses;
+    private Long evictions;
+    private Long expirations;
+
+    public CacheStatsDTO(String name, ExpiringCache<?, ?> cache) {
+        this.name = name;
+        size = cache.size();
+        maxSize = cache.getMaxSize();
+        hits = cache.getHits();
+        misses = cache.getMisses();
+        evictions = cache.getEvictions();
+        expirations = cache.getExpirations();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public Integer getMaxSize() {
+        return maxSize;
+    }
+
+    public Long getHits() {
+        return hits;
+    }
+
+    public Long getMisses() {
+        return misses;
+    }
+
+    public Long getEvictions() {
+        return evictions;
+    }
+
+    public Long getExpirations() {
+        return expirations;
+    }
+
+    public Double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,28 @@
+package com.devsuperior.dscommerce.dto;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class CategorySnapshotDTO {
+    private List<CategoryDTO> categories;
+    private String eTag;
+
+    public CategorySnapshotDTO(List<CategoryDTO> categories) {
+        this.categories = List.copyOf(categories);
+        StringBuilder content = new StringBuilder();
+        for (CategoryDTO category : this.categories) {
+            content.append(category.getId()).append(':').append(category.getName()).append('\n');
+        }
+        eTag = DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public List<CategoryDTO> getCategories() {
+        return categories;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+}
@@ -3,6 +3,7 @@ package com.devsuperior.dscommerce.dto;
 import com.devsuperior.dscommerce.entities.Order;
 import com.devsuperior.dscommerce.entities.OrderItem;
 import com.devsuperior.dscommerce.entities.OrderStatus;
+import com.devsuperior.dscommerce.entities.Payment;
 import jakarta.validation.constraints.NotEmpty;
 
 import java.time.Instant;
@@ -28,11 +29,15 @@ public class OrderDTO {
     }
 
     public OrderDTO(Order entity) {
+        this(entity, null);
+    }
+
+    public OrderDTO(Order entity, Payment payment) {
         id = entity.getId();
         moment = entity.getMoment();
         status = entity.getStatus();
         client = new UserMinDTO(entity.getClient());
-        payment = (entity.getPayment() == null) ? null : new PaymentDTO(entity.getPayment());
+        this.payment = (payment == null) ? null : new PaymentDTO(payment);
         for (OrderItem item: entity.getItems()) {
             OrderItemDTO itemDTO = new OrderItemDTO(item);
             items.add(itemDTO);
@@ -0,0 +1,63 @@
+package com.devsuperior.dscommerce.dto;
+
+import com.devsuperior.dscommerce.config.PasswordVerificationExecutor;
+
+public class PasswordVerificationStatsDTO {
+    private Integer poolSize;
+    private Integer activeCount;
+    private Integer queueDepth;
+    private Integer queueCapacity;
+    private Long completed;
+    private Long rejected;
+    private Long timedOut;
+    private Double averageMillis;
+    private Double maxMillis;
+
+    public PasswordVerificationStatsDTO(PasswordVerificationExecutor executor) {
+        poolSize = executor.getPoolSize();
+        activeCount = executor.getActiveCount();
+        queueDepth = executor.getQueueDepth();
+        queueCapacity = executor.getQueueCapacity();
+        completed = executor.getCompleted();
+        rejected = executor.getRejected();
+        timedOut = executor.getTimedOut();
+        averageMillis = completed == 0 ? 0.0 : executor.getTotalNanos() / 1e6 / completed;
+        maxMillis = executor.getMaxNanos() / 1e6;
+    }
+
+    public Integer getPoolSize() {
+        return poolSize;
+    }
+
+    public Integer getActiveCount() {
+        return activeCount;
+    }
+
+    public Integer getQueueDepth() {
+        return queueDepth;
+    }
+
+    public Integer getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public Long getCompleted() {
+        return completed;
+    }
+
+    public Long getRejected() {
+        return rejected;
+    }
+
+    public Long getTimedOut() {
+        return timedOut;
+    }
+
+    public Double getAverageMillis() {
+        return averageMillis;
+    }
+
+    public Double getMaxMillis() {
+        return maxMillis;
+    }
+}
@@ -0,0 +1,19 @@
+package com.devsuperior.dscommerce.dto;
+
+public class ProductCountDTO {
+    private String name;
+    private Long total;
+
+    public ProductCountDTO(String name, Long total) {
+        this.name = name;
+        this.total = total;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,39 @@
+package com.devsuperior.dscommerce.dto;
+
+import java.time.Instant;
+
+public class ProductVersionDTO {
+    private Long id;
+    private Integer version;
+    private Instant updatedAt;
+
+    public ProductVersionDTO(Long id, Integer version, Instant updatedAt) {
+        this.id = id;
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
+
+    public ProductVersionDTO(ProductDTO dto) {
+        this(dto.getId(), dto.getVersion(), dto.getUpdatedAt());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public String getETag() {
+        return id + "-" + version;
+    }
+
+    public long getLastModified() {
+        return updatedAt == null ? -1 : updatedAt.toEpochMilli();
+    }
+}
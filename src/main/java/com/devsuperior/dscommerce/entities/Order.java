@@ -4,39 +4,39 @@ import jakarta.persistence.*;
 
 import java.time.Instant;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
 @Entity
-@Table(name="tb_order")
+@NamedEntityGraph(name = "Order.summary", attributeNodes = @NamedAttributeNode("client"))
+@NamedEntityGraph(name = "Order.detail",
+        attributeNodes = {@NamedAttributeNode("client"), @NamedAttributeNode(value = "items", subgraph = "items")},
+        subgraphs = @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("product")))
+@Table(name="tb_order", indexes = @Index(name = "idx_order_client_moment", columnList = "client_id, moment"))
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_order")
+    @SequenceGenerator(name = "seq_order", sequenceName = "seq_order", allocationSize = 50)
     private Long id;
     @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
     private Instant moment;
     private OrderStatus status;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="client_id")
     private User client;
 
-    @OneToOne(mappedBy = "order", cascade = CascadeType.ALL)
-    private Payment payment;
-
-    @OneToMany(mappedBy = "id.order")
+    @OneToMany(mappedBy = "order")
     private Set<OrderItem> items = new HashSet<>();
 
     public Order() {
     }
 
-    public Order(Long id, Instant moment, OrderStatus status, User client, Payment payment) {
+    public Order(Long id, Instant moment, OrderStatus status, User client) {
         this.id = id;
         this.moment = moment;
         this.status = status;
         this.client = client;
-        this.payment = payment;
     }
 
     public Long getId() {
@@ -71,22 +71,10 @@ public class Order {
         this.client = client;
     }
 
-    public Payment getPayment() {
-        return payment;
-    }
-
-    public void setPayment(Payment payment) {
-        this.payment = payment;
-    }
-
     public Set<OrderItem> getItems() {
         return items;
     }
 
-    public List<Product> getOrders() {
-        return items.stream().map( x -> x.getProduct()).toList();
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -2,42 +2,84 @@ package com.devsuperior.dscommerce.entities;
 
 import jakarta.persistence.EmbeddedId;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.MapsId;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
 
 import java.util.Objects;
 
 @Entity
-@Table(name="tb_order_item")
-public class OrderItem {
+@Table(name="tb_order_item", indexes = @Index(name = "idx_order_item_product", columnList = "product_id"))
+public class OrderItem implements Persistable<OrderItemPK> {
 
     @EmbeddedId
     private OrderItemPK id = new OrderItemPK();
+
+    @MapsId("orderId")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id")
+    private Order order;
+
+    @MapsId("productId")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id")
+    private Product product;
+
     private Integer quantity;
     private Double price;
 
+    @Transient
+    private boolean isNew = true;
+
     public OrderItem() {
     }
 
     public OrderItem(Order order, Product product, Integer quantity, Double price) {
-        id.setOrder(order);
-        id.setProduct(product);
+        setOrder(order);
+        setProduct(product);
         this.quantity = quantity;
         this.price = price;
     }
 
+    @Override
+    public OrderItemPK getId() {
+        return id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void markNotNew() {
+        isNew = false;
+    }
+
     public Order getOrder() {
-        return id.getOrder();
+        return order;
     }
 
     public void setOrder(Order order) {
-        id.setOrder(order);
+        this.order = order;
+        id.setOrderId(order == null ? null : order.getId());
     }
+
     public Product getProduct() {
-        return id.getProduct();
+        return product;
     }
 
     public void setProduct(Product product) {
-        id.setProduct(product);
+        this.product = product;
+        id.setProductId(product == null ? null : product.getId());
     }
 
     public Integer getQuantity() {
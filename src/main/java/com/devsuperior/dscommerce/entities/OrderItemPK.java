@@ -1,37 +1,39 @@
 package com.devsuperior.dscommerce.entities;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Embeddable;
-import jakarta.persistence.JoinColumn;
-import jakarta.persistence.ManyToOne;
 
 import java.util.Objects;
 
 @Embeddable
 public class OrderItemPK {
-    @ManyToOne
-    @JoinColumn(name = "order_id")
-    private Order order;
-    @ManyToOne
-    @JoinColumn(name = "product_id")
-    private Product product;
+    @Column(name = "order_id")
+    private Long orderId;
+    @Column(name = "product_id")
+    private Long productId;
 
     public OrderItemPK() {
     }
 
-    public Order getOrder() {
-        return order;
+    public OrderItemPK(Long orderId, Long productId) {
+        this.orderId = orderId;
+        this.productId = productId;
     }
 
-    public void setOrder(Order order) {
-        this.order = order;
+    public Long getOrderId() {
+        return orderId;
     }
 
-    public Product getProduct() {
-        return product;
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
     }
 
-    public void setProduct(Product product) {
-        this.product = product;
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
     }
 
     @Override
@@ -39,11 +41,11 @@ public class OrderItemPK {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         OrderItemPK that = (OrderItemPK) o;
-        return Objects.equals(order, that.order) && Objects.equals(product, that.product);
+        return Objects.equals(orderId, that.orderId) && Objects.equals(productId, that.productId);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(order, product);
+        return Objects.hash(orderId, productId);
     }
 }
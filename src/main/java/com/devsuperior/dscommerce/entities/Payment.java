@@ -13,7 +13,7 @@ public class Payment {
     private Long id;
     @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
     private Instant moment;
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @MapsId
     private Order order;
 
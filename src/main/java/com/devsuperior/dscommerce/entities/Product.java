@@ -2,17 +2,19 @@ package com.devsuperior.dscommerce.entities;
 
 import jakarta.persistence.*;
 
+import java.time.Instant;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
 @Entity
-@Table(name="tb_product")
+@NamedEntityGraph(name = "Product.detail", attributeNodes = @NamedAttributeNode("categories"))
+@Table(name="tb_product", indexes = @Index(name = "idx_product_name_id", columnList = "name, id"))
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_product")
+    @SequenceGenerator(name = "seq_product", sequenceName = "seq_product", allocationSize = 50)
     private Long id;
     private String name;
     @Column(columnDefinition = "TEXT")
@@ -20,15 +22,18 @@ public class Product {
     private Double price;
     private String imgUrl;
 
+    @Version
+    private Integer version;
+
+    @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+    private Instant updatedAt;
+
     @ManyToMany
     @JoinTable(name = "tb_product_category",
             joinColumns = @JoinColumn(name = "product_id"),
             inverseJoinColumns = @JoinColumn(name = "category_id"))
     private Set<Category> categories = new HashSet<>();
 
-    @OneToMany(mappedBy = "id.product")
-    private Set<OrderItem> items = new  HashSet<>();
-
     public Product() {
     }
 
@@ -80,16 +85,22 @@ public class Product {
         this.imgUrl = imgUrl;
     }
 
-    public Set<Category> getCategories() {
-        return categories;
+    public Integer getVersion() {
+        return version;
     }
 
-    public Set<OrderItem> getItems() {
-        return items;
+    public Instant getUpdatedAt() {
+        return updatedAt;
     }
 
-    public List<Order> getOrders() {
-        return items.stream().map( x -> x.getOrder()).toList();
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        updatedAt = Instant.now();
+    }
+
+    public Set<Category> getCategories() {
+        return categories;
     }
 
     @Override
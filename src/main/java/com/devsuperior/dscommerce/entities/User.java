@@ -11,7 +11,8 @@ import java.util.*;
 @Table(name="tb_user")
 public class User implements UserDetails {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_user")
+    @SequenceGenerator(name = "seq_user", sequenceName = "seq_user", allocationSize = 50)
     private Long id;
     private String name;
     @Column(unique = true)
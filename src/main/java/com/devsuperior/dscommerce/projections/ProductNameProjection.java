@@ -0,0 +1,6 @@
+package com.devsuperior.dscommerce.projections;
+
+public interface ProductNameProjection {
+    Long getId();
+    String getName();
+}
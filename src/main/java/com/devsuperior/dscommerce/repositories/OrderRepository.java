@@ -3,12 +3,42 @@ package com.devsuperior.dscommerce.repositories;
 import com.devsuperior.dscommerce.entities.Order;
 import com.devsuperior.dscommerce.entities.User;
 import com.devsuperior.dscommerce.projections.UserDetailsProjection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
+    @Override
+    @EntityGraph("Order.summary")
+    Optional<Order> findById(Long id);
+
+    @Query("SELECT obj.id FROM Order obj WHERE obj.client.id = :clientId ORDER BY obj.moment DESC, obj.id DESC")
+    List<Long> searchIdsByClient(Long clientId, Pageable pageable);
+
+    @Query("SELECT obj.id FROM Order obj WHERE obj.client.id = :clientId "
+            + "AND (obj.moment < :lastMoment OR (obj.moment = :lastMoment AND obj.id < :lastId)) "
+            + "ORDER BY obj.moment DESC, obj.id DESC")
+    List<Long> searchIdsByClientBefore(Long clientId, Instant lastMoment, Long lastId, Pageable pageable);
+
+    @EntityGraph("Order.detail")
+    @Query("SELECT obj FROM Order obj WHERE obj.id = :id")
+    Optional<Order> searchWithItemsById(Long id);
+
+    @EntityGraph("Order.detail")
+    @Query("SELECT obj FROM Order obj WHERE obj.id IN :ids")
+    List<Order> searchWithItemsByIds(Collection<Long> ids);
+
+    @EntityGraph("Order.summary")
+    @Query(value = "SELECT obj FROM Order obj "
+            + "WHERE obj.id IN (SELECT item.order.id FROM OrderItem item WHERE item.product.id = :productId)",
+            countQuery = "SELECT COUNT(item) FROM OrderItem item WHERE item.product.id = :productId")
+    Page<Order> searchByProduct(Long productId, Pageable pageable);
 }
@@ -1,13 +1,65 @@
 package com.devsuperior.dscommerce.repositories;
 
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.dto.ProductVersionDTO;
 import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.projections.ProductNameProjection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
-    @Query("SELECT obj FROM Product obj WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%'))")
-    Page<Product> searchByName(String name, Pageable pageable);
+    @Override
+    @EntityGraph("Product.detail")
+    Optional<Product> findById(Long id);
+
+    @Query("SELECT new com.devsuperior.dscommerce.dto.ProductVersionDTO(obj.id, obj.version, obj.updatedAt) "
+            + "FROM Product obj WHERE obj.id = :id")
+    Optional<ProductVersionDTO> searchVersionById(Long id);
+
+    @Query(value = "SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) "
+            + "FROM Product obj WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%'))",
+            countQuery = "SELECT COUNT(obj) FROM Product obj WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%'))")
+    Page<ProductMinDTO> searchByName(String name, Pageable pageable);
+
+    @Query("SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) "
+            + "FROM Product obj WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%'))")
+    Slice<ProductMinDTO> searchSliceByName(String name, Pageable pageable);
+
+    @Query("SELECT COUNT(obj) FROM Product obj WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%'))")
+    Long countSearchByName(String name);
+
+    @Query("SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) "
+            + "FROM Product obj WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) "
+            + "AND obj.id > :lastId ORDER BY obj.id")
+    List<ProductMinDTO> searchByNameAfterId(String name, Long lastId, Pageable pageable);
+
+    @Query("SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) "
+            + "FROM Product obj WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) "
+            + "AND obj.name >= :lastName AND (obj.name > :lastName OR obj.id > :lastId) ORDER BY obj.name, obj.id")
+    List<ProductMinDTO> searchByNameAfterName(String name, String lastName, Long lastId, Pageable pageable);
+
+    @Query("SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) "
+            + "FROM Product obj WHERE obj.id IN :ids")
+    List<ProductMinDTO> searchMinByIds(Collection<Long> ids);
+
+    @Query(value = "SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) "
+            + "FROM Product obj WHERE obj.id IN (SELECT item.product.id FROM OrderItem item WHERE item.order.id = :orderId)",
+            countQuery = "SELECT COUNT(item) FROM OrderItem item WHERE item.order.id = :orderId")
+    Page<ProductMinDTO> searchByOrder(Long orderId, Pageable pageable);
+
+    @EntityGraph("Product.detail")
+    @Query("SELECT obj FROM Product obj WHERE obj.id IN :ids")
+    List<Product> searchWithCategoriesByIds(Collection<Long> ids);
+
+    @Query("SELECT obj.id AS id, obj.name AS name FROM Product obj")
+    List<ProductNameProjection> searchAllNames();
 }
@@ -1,25 +1,50 @@
 package com.devsuperior.dscommerce.services;
 
 import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.dto.CategorySnapshotDTO;
 import com.devsuperior.dscommerce.entities.Category;
 import com.devsuperior.dscommerce.repositories.CategoryRepository;
+import com.devsuperior.dscommerce.util.ExpiringCache;
+import com.devsuperior.dscommerce.util.TransactionUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
 import java.util.List;
 
 @Service
 public class CategoryService {
 
+    private static final String SNAPSHOT_KEY = "all";
+
     @Autowired
     private CategoryRepository repository;
 
-    @Transactional(readOnly = true)
+    @Autowired
+    private ExpiringCache<String, CategorySnapshotDTO> categoryCache;
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<CategoryDTO> findAll() {
-        List<Category> result = repository.findAll();
-        return result.stream().map(x -> new CategoryDTO(x)).toList();
+        return findSnapshot().getCategories();
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CategorySnapshotDTO findSnapshot() {
+        return categoryCache.get(SNAPSHOT_KEY, x -> {
+            List<Category> result = repository.findAll();
+            return new CategorySnapshotDTO(result.stream()
+                    .sorted(Comparator.comparing(Category::getId))
+                    .map(c -> new CategoryDTO(c)).toList());
+        });
+    }
 
+    /**
+     * Drops the snapshot once the current transaction commits. Every write path that changes
+     * categories must call this, as ProductService does for its own caches.
+     */
+    public void evictCache() {
+        TransactionUtil.afterCommit(() -> categoryCache.clear());
+    }
 }
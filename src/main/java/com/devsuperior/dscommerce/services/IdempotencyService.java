@@ -0,0 +1,115 @@
+package com.devsuperior.dscommerce.services;
+
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
+import com.devsuperior.dscommerce.services.exceptions.ConflictException;
+import com.devsuperior.dscommerce.services.exceptions.ResultPendingException;
+import com.devsuperior.dscommerce.services.exceptions.UnprocessableEntityException;
+import com.devsuperior.dscommerce.util.CustomUserUtil;
+import com.devsuperior.dscommerce.util.ExpiringCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs an action at most once per idempotency key and user. Requests that arrive while the
+ * first one is still running wait for it, up to idempotency.wait-timeout-ms, and get the same
+ * result; a failed action frees the key, unless it ended with a ResultPendingException, in
+ * which case the key waits for the pending outcome. A key reused with a different request is
+ * rejected.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Value("${idempotency.wait-timeout-ms:5000}")
+    private long waitTimeoutMs;
+
+    @Autowired
+    private ExpiringCache<String, Entry> idempotencyCache;
+
+    @Autowired
+    private CustomUserUtil customUserUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String scope, String key, Object request, Supplier<T> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key inválida");
+        }
+        String cacheKey = scope + ":" + customUserUtil.getLoggedUsername() + ":" + key;
+
+        Entry created = new Entry(hash(request));
+        Entry existing = idempotencyCache.putIfAbsent(cacheKey, created);
+        if (existing != null) {
+            if (!Arrays.equals(existing.requestHash, created.requestHash)) {
+                throw new UnprocessableEntityException("Idempotency-Key já utilizada com uma requisição diferente");
+            }
+            try {
+                return (T) existing.result.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                throw new ConflictException("Requisição com esta Idempotency-Key ainda em processamento");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ConflictException("Requisição com esta Idempotency-Key ainda em processamento");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        try {
+            T result = action.get();
+            created.result.complete(result);
+            return result;
+        } catch (ResultPendingException e) {
+            // the action may still succeed: keep the key bound to its outcome so a retry replays it
+            e.getResult().whenComplete((result, failure) -> {
+                if (failure != null) {
+                    idempotencyCache.invalidate(cacheKey);
+                    created.result.completeExceptionally(failure);
+                } else {
+                    created.result.complete(result);
+                }
+            });
+            throw e;
+        } catch (Throwable e) {
+            idempotencyCache.invalidate(cacheKey);
+            created.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private byte[] hash(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class Entry {
+
+        private final byte[] requestHash;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private Entry(byte[] requestHash) {
+            this.requestHash = requestHash;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.devsuperior.dscommerce.services;
+
+import com.devsuperior.dscommerce.dto.OrderDTO;
+import com.devsuperior.dscommerce.entities.User;
+import com.devsuperior.dscommerce.services.exceptions.ResultPendingException;
+import com.devsuperior.dscommerce.services.exceptions.ServiceUnavailableException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Optional group-commit path for order placement. Requests are queued and a single writer
+ * thread inserts them in micro-batches, one transaction per batch. If a batch fails, its
+ * orders are retried one per transaction so a bad order only fails its own request.
+ */
+@Component
+public class OrderIngestionPipeline {
+
+    @Value("${order.ingestion.enabled:false}")
+    private boolean enabled;
+
+    @Value("${order.ingestion.batch-size:50}")
+    private int batchSize;
+
+    @Value("${order.ingestion.max-wait-ms:10}")
+    private long maxWaitMs;
+
+    @Value("${order.ingestion.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${order.ingestion.timeout-ms:5000}")
+    private long timeoutMs;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private BlockingQueue<PendingOrder> queue;
+    private final Set<PendingOrder> pendingOrders = ConcurrentHashMap.newKeySet();
+    private Thread writer;
+    private volatile boolean running;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::run, "order-ingestion-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        failPending();
+    }
+
+    /**
+     * Waits at most order.ingestion.timeout-ms. An order that times out before the writer
+     * takes it is withdrawn and never written. One the writer already took may still be
+     * committed, so the timeout is reported as a ResultPendingException carrying its future.
+     */
+    public OrderDTO insert(OrderDTO dto) {
+        PendingOrder pending = enqueue(dto, userService.authenticated());
+        try {
+            return pending.future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (pending.withdraw()) {
+                ServiceUnavailableException timeout = new ServiceUnavailableException("Tempo de espera do pedido esgotado, tente novamente");
+                pending.future.completeExceptionally(timeout);
+                throw timeout;
+            }
+            throw new ResultPendingException("Pedido em gravação, tente novamente", pending.future);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Pedido interrompido");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ServiceUnavailableException("Falha ao gravar o pedido");
+        }
+    }
+
+    public CompletableFuture<OrderDTO> submit(OrderDTO dto, User user) {
+        return enqueue(dto, user).future;
+    }
+
+    private PendingOrder enqueue(OrderDTO dto, User user) {
+        if (!running) {
+            throw new ServiceUnavailableException("Fila de pedidos indisponível");
+        }
+        PendingOrder pending = new PendingOrder(dto, user);
+        pendingOrders.add(pending);
+        pending.future.whenComplete((result, e) -> pendingOrders.remove(pending));
+        if (!queue.offer(pending)) {
+            pendingOrders.remove(pending);
+            throw new ServiceUnavailableException("Fila de pedidos cheia, tente novamente");
+        }
+        if (!running) {
+            // stop() may have drained the queue between the check above and the offer
+            pending.future.completeExceptionally(new ServiceUnavailableException("Fila de pedidos indisponível"));
+        }
+        return pending;
+    }
+
+    private void run() {
+        try {
+            writeLoop();
+        } finally {
+            running = false;
+            failPending();
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingOrder> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingOrder first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+                while (batch.size() < batchSize) {
+                    PendingOrder next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+                fail(batch, new ServiceUnavailableException("Serviço em desligamento"));
+            } catch (Throwable e) {
+                fail(batch, e);
+            }
+            batch.clear();
+        }
+    }
+
+    void write(List<PendingOrder> queued) {
+        List<PendingOrder> batch = queued.stream().filter(x -> x.take() && !x.future.isDone()).toList();
+        if (batch.isEmpty()) {
+            return;
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<OrderDTO> results;
+        try {
+            results = transactionTemplate.execute(status -> {
+                List<OrderDTO> inserted = new ArrayList<>(batch.size());
+                for (PendingOrder pending : batch) {
+                    inserted.add(orderService.insert(pending.dto, pending.user));
+                }
+                return inserted;
+            });
+        } catch (RuntimeException e) {
+            for (PendingOrder pending : batch) {
+                if (pending.future.isDone()) {
+                    // failed meanwhile, e.g. by stop(); its caller already has an answer
+                    continue;
+                }
+                try {
+                    pending.future.complete(orderService.insert(pending.dto, pending.user));
+                } catch (RuntimeException itemException) {
+                    pending.future.completeExceptionally(itemException);
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).future.complete(results.get(i));
+        }
+    }
+
+    private void failPending() {
+        List<PendingOrder> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.addAll(pendingOrders);
+        fail(remaining, new ServiceUnavailableException("Serviço em desligamento"));
+    }
+
+    private static void fail(Collection<PendingOrder> batch, Throwable e) {
+        for (PendingOrder pending : batch) {
+            pending.future.completeExceptionally(e);
+        }
+    }
+
+    static class PendingOrder {
+        private final OrderDTO dto;
+        private final User user;
+        private final CompletableFuture<OrderDTO> future = new CompletableFuture<>();
+        // set once, either by the writer taking the order or by its caller withdrawing it
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        PendingOrder(OrderDTO dto, User user) {
+            this.dto = dto;
+            this.user = user;
+        }
+
+        boolean take() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        boolean withdraw() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+}
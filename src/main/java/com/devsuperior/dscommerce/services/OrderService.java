@@ -1,21 +1,39 @@
 package com.devsuperior.dscommerce.services;
 
+import com.devsuperior.dscommerce.dto.CursorPageDTO;
+import com.devsuperior.dscommerce.dto.FieldMessage;
 import com.devsuperior.dscommerce.dto.OrderDTO;
 import com.devsuperior.dscommerce.dto.OrderItemDTO;
 import com.devsuperior.dscommerce.entities.*;
 import com.devsuperior.dscommerce.repositories.OrderItemRepository;
 import com.devsuperior.dscommerce.repositories.OrderRepository;
+import com.devsuperior.dscommerce.repositories.PaymentRepository;
 import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
 import com.devsuperior.dscommerce.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscommerce.services.exceptions.ValidationException;
+import com.devsuperior.dscommerce.util.CursorUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     @Autowired
     private OrderRepository repository;
 
@@ -28,34 +46,113 @@ public class OrderService {
     @Autowired
     private OrderItemRepository orderItemRepository;
 
+    @Autowired
+    private PaymentRepository paymentRepository;
+
     @Autowired
     private AuthService authService;
 
     @Transactional(readOnly = true)
     public OrderDTO findById(Long id) {
-        Order order = repository.findById(id).orElseThrow(
+        Order order = repository.searchWithItemsById(id).orElseThrow(
                 () -> new ResourceNotFoundException("Recurso não encontrado"));
         authService.validateSelfOrAdmin(order.getClient().getId());
-        return new OrderDTO(order);
+        Payment payment = paymentRepository.findById(id).orElse(null);
+        return new OrderDTO(order, payment);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OrderDTO> findMine(String after, Integer size) {
+        if (size < 1) {
+            throw new BadRequestException("Tamanho de página inválido");
+        }
+        size = Math.min(size, MAX_CURSOR_PAGE_SIZE);
+        Pageable limit = PageRequest.of(0, size + 1);
+        User user = userService.authenticated();
+
+        List<Long> ids;
+        if (after.isEmpty()) {
+            ids = repository.searchIdsByClient(user.getId(), limit);
+        } else {
+            String[] cursor = CursorUtil.decode(after, 2);
+            ids = repository.searchIdsByClientBefore(user.getId(), parseMoment(cursor[1]), parseId(cursor[0]), limit);
+        }
+
+        boolean hasNext = ids.size() > size;
+        if (hasNext) {
+            ids = ids.subList(0, size);
+        }
+        Map<Long, Order> orders = new HashMap<>();
+        Map<Long, Payment> payments = new HashMap<>();
+        if (!ids.isEmpty()) {
+            repository.searchWithItemsByIds(ids).forEach(x -> orders.put(x.getId(), x));
+            paymentRepository.findAllById(ids).forEach(x -> payments.put(x.getId(), x));
+        }
+        List<OrderDTO> content = ids.stream().map(x -> new OrderDTO(orders.get(x), payments.get(x))).toList();
+
+        String nextCursor = null;
+        if (hasNext) {
+            Order last = orders.get(ids.get(size - 1));
+            nextCursor = CursorUtil.encode(last.getId().toString(), last.getMoment().toString());
+        }
+        return new CursorPageDTO<>(content, size, nextCursor);
     }
 
     @Transactional
     public OrderDTO insert(OrderDTO dto) {
+        return insert(dto, userService.authenticated());
+    }
+
+    @Transactional
+    public OrderDTO insert(OrderDTO dto, User user) {
         Order order = new Order();
         order.setMoment(Instant.now());
         order.setStatus(OrderStatus.WAITING_PAYMENT);
-        User user = userService.authenticated();
         order.setClient(user);
 
+        Map<Long, Product> products = findProducts(dto.getItems());
+        repository.save(order);
         for (OrderItemDTO itemDTO: dto.getItems()) {
-            Product product = productRepository.getReferenceById(itemDTO.getProductId());
+            Product product = products.get(itemDTO.getProductId());
             OrderItem item = new OrderItem(order, product, itemDTO.getQuantity(), product.getPrice());
             order.getItems().add(item);
         }
-
-        repository.save(order);
         orderItemRepository.saveAll(order.getItems());
 
         return new OrderDTO(order);
     }
+
+    private Map<Long, Product> findProducts(List<OrderItemDTO> items) {
+        Set<Long> ids = items.stream().map(x -> x.getProductId()).filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, Product> products = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(x -> x.getId(), x -> x));
+
+        List<FieldMessage> errors = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            Long productId = items.get(i).getProductId();
+            if (!products.containsKey(productId)) {
+                errors.add(new FieldMessage("items[" + i + "].productId", "Produto não encontrado: " + productId));
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new ValidationException("Dados inválidos", errors);
+        }
+        return products;
+    }
+
+    private Long parseId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Cursor inválido");
+        }
+    }
+
+    private Instant parseMoment(String value) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Cursor inválido");
+        }
+    }
 }
@@ -0,0 +1,209 @@
+package com.devsuperior.dscommerce.services;
+
+import com.devsuperior.dscommerce.projections.ProductNameProjection;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.util.TransactionUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory trigram index over product names. Names are indexed without accents
+ * and in lower case, so "eletronicos" finds "Eletrônicos". Queries shorter than a
+ * trigram, or sorted by anything other than id or name, are left to the database.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final int GRAM_SIZE = 3;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Set<String> SORTABLE = Set.of("id", "name");
+
+    @Value("${product.search.index.enabled:false}")
+    private boolean enabled;
+
+    @Autowired
+    private ProductRepository repository;
+
+    private final Map<Long, String> names = new HashMap<>();
+    private final Map<String, Set<Long>> grams = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            names.clear();
+            grams.clear();
+            for (ProductNameProjection projection : repository.searchAllNames()) {
+                add(projection.getId(), projection.getName());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Long id, String name) {
+        if (!enabled) {
+            return;
+        }
+        TransactionUtil.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                delete(id);
+                add(id, name);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(Long id) {
+        if (!enabled) {
+            return;
+        }
+        TransactionUtil.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                delete(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public boolean supports(String name, Sort sort) {
+        return normalize(name).length() >= GRAM_SIZE
+                && sort.stream().allMatch(x -> SORTABLE.contains(x.getProperty()));
+    }
+
+    public Set<Long> search(String name) {
+        String query = requireGram(name);
+        lock.readLock().lock();
+        try {
+            return matches(query);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Matching ids ordered by the given sort, with id as the final tie-breaker. Names sort
+     * by their normalized form.
+     */
+    public List<Long> search(String name, Sort sort) {
+        String query = requireGram(name);
+        lock.readLock().lock();
+        try {
+            List<Long> result = new ArrayList<>(matches(query));
+            result.sort(comparator(sort));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<Long> matches(String query) {
+        Set<Long> result = new HashSet<>();
+        Set<Long> candidates = null;
+        for (String gram : grams(query)) {
+            Set<Long> posting = grams.get(gram);
+            if (posting == null) {
+                return result;
+            }
+            if (candidates == null || posting.size() < candidates.size()) {
+                candidates = posting;
+            }
+        }
+        for (Long id : candidates) {
+            if (names.get(id).contains(query)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private Comparator<Long> comparator(Sort sort) {
+        Comparator<Long> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<Long> next = "name".equals(order.getProperty())
+                    ? Comparator.comparing(names::get)
+                    : Comparator.naturalOrder();
+            comparator = comparator.thenComparing(order.isDescending() ? next.reversed() : next);
+        }
+        return comparator.thenComparing(Comparator.naturalOrder());
+    }
+
+    private static String requireGram(String name) {
+        String query = normalize(name);
+        if (query.length() < GRAM_SIZE) {
+            throw new IllegalArgumentException("Query shorter than " + GRAM_SIZE + " characters");
+        }
+        return query;
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT).trim();
+    }
+
+    private void add(Long id, String name) {
+        String normalized = normalize(name);
+        names.put(id, normalized);
+        for (String gram : grams(normalized)) {
+            grams.computeIfAbsent(gram, x -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void delete(Long id) {
+        String normalized = names.remove(id);
+        if (normalized == null) {
+            return;
+        }
+        for (String gram : grams(normalized)) {
+            Set<Long> posting = grams.get(gram);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    grams.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Set<String> grams(String normalized) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= normalized.length(); i++) {
+            result.add(normalized.substring(i, i + GRAM_SIZE));
+        }
+        return result;
+    }
+}
@@ -1,39 +1,227 @@
 package com.devsuperior.dscommerce.services;
 
 import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.dto.ProductBatchDTO;
+import com.devsuperior.dscommerce.dto.CursorPageDTO;
+import com.devsuperior.dscommerce.dto.ProductCountDTO;
 import com.devsuperior.dscommerce.dto.ProductDTO;
 import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.dto.ProductVersionDTO;
 import com.devsuperior.dscommerce.entities.Category;
 import com.devsuperior.dscommerce.entities.Product;
 import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
 import com.devsuperior.dscommerce.services.exceptions.DatabaseException;
 import com.devsuperior.dscommerce.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscommerce.util.CursorUtil;
+import com.devsuperior.dscommerce.util.ExpiringCache;
+import com.devsuperior.dscommerce.util.TransactionUtil;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
 @Service
 public class ProductService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 100;
+
     @Autowired
     private ProductRepository repository;
 
-    @Transactional(readOnly = true)
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private ExpiringCache<Long, ProductDTO> productCache;
+
+    @Autowired
+    private ExpiringCache<String, Long> productCountCache;
+
+    /**
+     * Served from productCache unless called inside a read-write transaction, which may hold
+     * uncommitted changes to the product that must neither be cached nor be hidden by the cache.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public ProductDTO findById(Long id) {
-        Product product = repository.findById(id).orElseThrow(
-                () -> new ResourceNotFoundException("Recurso não encontrado"));
-        return new ProductDTO(product);
+        ProductDTO dto = TransactionUtil.isReadWriteTransactionActive()
+                ? repository.findById(id).map(p -> new ProductDTO(p)).orElse(null)
+                : productCache.get(id, x -> repository.findById(x).map(p -> new ProductDTO(p)).orElse(null));
+        if (dto == null) {
+            throw new ResourceNotFoundException("Recurso não encontrado");
+        }
+        return dto;
+    }
+
+    /**
+     * Version of the product for conditional requests. Taken from the cached DTO when there
+     * is one, so it matches the body findById would return; otherwise a version-only query.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ProductVersionDTO findVersion(Long id) {
+        ProductDTO cached = TransactionUtil.isReadWriteTransactionActive() ? null : productCache.get(id);
+        if (cached != null) {
+            return new ProductVersionDTO(cached);
+        }
+        return repository.searchVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Recurso não encontrado"));
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ProductBatchDTO findAllByIds(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        if (requested.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("Máximo de " + MAX_BATCH_SIZE + " produtos por requisição");
+        }
+
+        // same rule as findById: a read-write transaction neither reads nor fills the cache
+        boolean useCache = !TransactionUtil.isReadWriteTransactionActive();
+        Map<Long, ProductDTO> found = new HashMap<>();
+        List<Long> toLoad = new ArrayList<>();
+        for (Long id : requested) {
+            ProductDTO dto = useCache ? productCache.get(id) : null;
+            if (dto != null) {
+                found.put(id, dto);
+            } else {
+                toLoad.add(id);
+            }
+        }
+        if (!toLoad.isEmpty()) {
+            for (Product product : repository.searchWithCategoriesByIds(toLoad)) {
+                ProductDTO dto = new ProductDTO(product);
+                if (useCache) {
+                    ProductDTO cached = productCache.putIfAbsent(product.getId(), dto);
+                    dto = cached != null ? cached : dto;
+                }
+                found.put(product.getId(), dto);
+            }
+        }
+
+        List<ProductDTO> content = new ArrayList<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            ProductDTO dto = found.get(id);
+            if (dto != null) {
+                content.add(dto);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new ProductBatchDTO(content, missing);
     }
 
     @Transactional(readOnly = true)
     public Page<ProductMinDTO> findAll(String name, Pageable pageable) {
-        Page<Product> result = repository.searchByName(name, pageable);
-        return result.map(x -> new ProductMinDTO(x));
+        Page<ProductMinDTO> result;
+        if (useSearchIndex(name, pageable)) {
+            List<Long> ids = searchIndex.search(name, pageable.getSort());
+            result = new PageImpl<>(findPageOfIds(ids, pageable), pageable, ids.size());
+        } else {
+            result = repository.searchByName(name, pageable);
+        }
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<ProductMinDTO> findAllSlice(String name, Pageable pageable) {
+        Slice<ProductMinDTO> result;
+        if (useSearchIndex(name, pageable)) {
+            List<Long> ids = searchIndex.search(name, pageable.getSort());
+            boolean hasNext = pageable.getOffset() + pageable.getPageSize() < ids.size();
+            result = new SliceImpl<>(findPageOfIds(ids, pageable), pageable, hasNext);
+        } else {
+            result = repository.searchSliceByName(name, pageable);
+        }
+        return result;
+    }
+
+    private boolean useSearchIndex(String name, Pageable pageable) {
+        return searchIndex.isEnabled() && pageable.isPaged() && searchIndex.supports(name, pageable.getSort());
+    }
+
+    private List<ProductMinDTO> findPageOfIds(List<Long> ids, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        List<Long> pageIds = ids.subList(from, to);
+        if (pageIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductMinDTO> products = new HashMap<>();
+        for (ProductMinDTO dto : repository.searchMinByIds(pageIds)) {
+            products.put(dto.getId(), dto);
+        }
+        return pageIds.stream().map(products::get).filter(x -> x != null).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public ProductCountDTO count(String name) {
+        Long total = productCountCache.get(name.toUpperCase(Locale.ROOT), x -> {
+            if (searchIndex.isEnabled() && searchIndex.supports(name, Sort.unsorted())) {
+                return (long) searchIndex.search(name).size();
+            }
+            return repository.countSearchByName(name);
+        });
+        return new ProductCountDTO(name, total);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductMinDTO> findAllByCursor(String name, String sort, String after, Integer size) {
+        if (size < 1) {
+            throw new BadRequestException("Tamanho de página inválido");
+        }
+        size = Math.min(size, MAX_CURSOR_PAGE_SIZE);
+        Pageable limit = PageRequest.of(0, size + 1);
+
+        List<ProductMinDTO> result;
+        if (sort.equals("id")) {
+            Long lastId = 0L;
+            if (!after.isEmpty()) {
+                String[] cursor = CursorUtil.decode(after, 2);
+                checkCursorSort(cursor[0], sort);
+                lastId = parseId(cursor[1]);
+            }
+            result = repository.searchByNameAfterId(name, lastId, limit);
+        } else if (sort.equals("name")) {
+            Long lastId = 0L;
+            String lastName = "";
+            if (!after.isEmpty()) {
+                String[] cursor = CursorUtil.decode(after, 3);
+                checkCursorSort(cursor[0], sort);
+                lastId = parseId(cursor[1]);
+                lastName = cursor[2];
+            }
+            result = repository.searchByNameAfterName(name, lastName, lastId, limit);
+        } else {
+            throw new BadRequestException("Ordenação inválida: " + sort);
+        }
+
+        String nextCursor = null;
+        if (result.size() > size) {
+            result = result.subList(0, size);
+            ProductMinDTO last = result.get(size - 1);
+            nextCursor = sort.equals("id")
+                    ? CursorUtil.encode(sort, last.getId().toString())
+                    : CursorUtil.encode(sort, last.getId().toString(), last.getName());
+        }
+        return new CursorPageDTO<>(result, size, nextCursor);
     }
 
     @Transactional
@@ -41,6 +229,8 @@ public class ProductService {
         Product entity = new Product();
         copyDTOToEntity(dto, entity);
         entity = repository.save(entity);
+        searchIndex.put(entity.getId(), entity.getName());
+        TransactionUtil.afterCommit(() -> productCountCache.clear());
         return new ProductDTO(entity);
     }
 
@@ -49,7 +239,13 @@ public class ProductService {
         try {
             Product entity = repository.getReferenceById(id);
             copyDTOToEntity(dto, entity);
-            entity = repository.save(entity);
+            // flush so the returned DTO carries the version and updatedAt just written
+            entity = repository.saveAndFlush(entity);
+            searchIndex.put(entity.getId(), entity.getName());
+            TransactionUtil.afterCommit(() -> {
+                productCache.invalidate(id);
+                productCountCache.clear();
+            });
             return new ProductDTO(entity);
         } catch (EntityNotFoundException e) {
             throw new ResourceNotFoundException("Recurso não encontrado");
@@ -63,11 +259,30 @@ public class ProductService {
         }
         try {
             repository.deleteById(id);
+            searchIndex.remove(id);
+            TransactionUtil.afterCommit(() -> {
+                productCache.invalidate(id);
+                productCountCache.clear();
+            });
         } catch (DataIntegrityViolationException e) {
             throw new DatabaseException("Falha de integridade referencial");
         }
     }
 
+    private void checkCursorSort(String cursorSort, String sort) {
+        if (!cursorSort.equals(sort)) {
+            throw new BadRequestException("Cursor não corresponde à ordenação " + sort);
+        }
+    }
+
+    private Long parseId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Cursor inválido");
+        }
+    }
+
     private void copyDTOToEntity(ProductDTO dto, Product entity) {
         entity.setName(dto.getName());
         entity.setDescription(dto.getDescription());
@@ -0,0 +1,21 @@
+package com.devsuperior.dscommerce.services.exceptions;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The caller stopped waiting but the work was already started and may still succeed.
+ * The eventual outcome is available through {@link #getResult()}.
+ */
+public class ResultPendingException extends ServiceUnavailableException{
+
+    private final CompletableFuture<?> result;
+
+    public ResultPendingException(String message, CompletableFuture<?> result) {
+        super(message);
+        this.result = result;
+    }
+
+    public CompletableFuture<?> getResult() {
+        return result;
+    }
+}
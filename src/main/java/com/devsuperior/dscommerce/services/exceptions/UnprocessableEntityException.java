@@ -0,0 +1,7 @@
+package com.devsuperior.dscommerce.services.exceptions;
+
+public class UnprocessableEntityException extends RuntimeException{
+    public UnprocessableEntityException(String message) {
+        super(message);
+    }
+}
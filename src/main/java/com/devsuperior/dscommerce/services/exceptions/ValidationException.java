@@ -0,0 +1,19 @@
+package com.devsuperior.dscommerce.services.exceptions;
+
+import com.devsuperior.dscommerce.dto.FieldMessage;
+
+import java.util.List;
+
+public class ValidationException extends RuntimeException{
+
+    private final List<FieldMessage> errors;
+
+    public ValidationException(String message, List<FieldMessage> errors) {
+        super(message);
+        this.errors = errors;
+    }
+
+    public List<FieldMessage> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,32 @@
+package com.devsuperior.dscommerce.util;
+
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public class CursorUtil {
+
+    private static final String SEPARATOR = ":";
+
+    /**
+     * Builds an opaque cursor from its parts. Only the last part may contain the separator.
+     */
+    public static String encode(String... parts) {
+        String raw = String.join(SEPARATOR, parts);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decode(String cursor, int parts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] result = raw.split(SEPARATOR, parts);
+            if (result.length != parts) {
+                throw new BadRequestException("Cursor inválido");
+            }
+            return result;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Cursor inválido");
+        }
+    }
+}
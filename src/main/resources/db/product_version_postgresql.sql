@@ -0,0 +1,13 @@
+-- Adds the optimistic-locking version and last-modified timestamp to an existing
+-- PostgreSQL tb_product. Rows without a version would be treated as new entities by
+-- Spring Data and get an unusable ETag, so every row is backfilled before the
+-- version column becomes NOT NULL. updated_at is stored as UTC wall-clock time.
+
+ALTER TABLE tb_product ADD COLUMN IF NOT EXISTS version INTEGER;
+ALTER TABLE tb_product ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP WITHOUT TIME ZONE;
+
+UPDATE tb_product SET version = 0 WHERE version IS NULL;
+UPDATE tb_product SET updated_at = CURRENT_TIMESTAMP AT TIME ZONE 'UTC' WHERE updated_at IS NULL;
+
+ALTER TABLE tb_product ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE tb_product ALTER COLUMN version SET NOT NULL;
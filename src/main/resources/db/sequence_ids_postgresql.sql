@@ -0,0 +1,21 @@
+-- Moves an existing PostgreSQL database from IDENTITY columns to the pooled
+-- sequences used by the entities (allocationSize = 50, pooled-lo optimizer).
+-- Each sequence starts right after the current max id of its table.
+
+CREATE SEQUENCE IF NOT EXISTS seq_category INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS seq_product INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS seq_user INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS seq_role INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS seq_order INCREMENT BY 50;
+
+SELECT setval('seq_category', (SELECT COALESCE(MAX(id), 0) + 1 FROM tb_category), false);
+SELECT setval('seq_product', (SELECT COALESCE(MAX(id), 0) + 1 FROM tb_product), false);
+SELECT setval('seq_user', (SELECT COALESCE(MAX(id), 0) + 1 FROM tb_user), false);
+SELECT setval('seq_role', (SELECT COALESCE(MAX(id), 0) + 1 FROM tb_role), false);
+SELECT setval('seq_order', (SELECT COALESCE(MAX(id), 0) + 1 FROM tb_order), false);
+
+ALTER TABLE tb_category ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE tb_product ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE tb_user ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE tb_role ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE tb_order ALTER COLUMN id DROP IDENTITY IF EXISTS;
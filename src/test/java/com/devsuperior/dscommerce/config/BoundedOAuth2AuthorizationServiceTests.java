@@ -0,0 +1,132 @@
+package com.devsuperior.dscommerce.config;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+public class BoundedOAuth2AuthorizationServiceTests {
+
+    private MutableClock clock;
+    private RegisteredClient registeredClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        registeredClient = RegisteredClient.withId("client")
+                .clientId("client")
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .build();
+    }
+
+    @Test
+    public void findByTokenShouldReturnSavedAuthorization() {
+        BoundedOAuth2AuthorizationService service = new BoundedOAuth2AuthorizationService(10, 0, clock);
+        OAuth2Authorization authorization = createAuthorization("1", "token-1", Duration.ofMinutes(5));
+        service.save(authorization);
+
+        Assertions.assertSame(authorization, service.findByToken("token-1", OAuth2TokenType.ACCESS_TOKEN));
+        Assertions.assertSame(authorization, service.findByToken("token-1", null));
+        Assertions.assertNull(service.findByToken("token-1", OAuth2TokenType.REFRESH_TOKEN));
+        Assertions.assertSame(authorization, service.findById("1"));
+    }
+
+    @Test
+    public void saveShouldEvictOldestAuthorizationWhenFull() {
+        BoundedOAuth2AuthorizationService service = new BoundedOAuth2AuthorizationService(2, 0, clock);
+        service.save(createAuthorization("1", "token-1", Duration.ofMinutes(5)));
+        service.save(createAuthorization("2", "token-2", Duration.ofMinutes(5)));
+        service.save(createAuthorization("3", "token-3", Duration.ofMinutes(5)));
+
+        Assertions.assertEquals(2, service.size());
+        Assertions.assertEquals(1L, service.getEvictions());
+        Assertions.assertNull(service.findByToken("token-1", OAuth2TokenType.ACCESS_TOKEN));
+        Assertions.assertNotNull(service.findByToken("token-3", OAuth2TokenType.ACCESS_TOKEN));
+    }
+
+    @Test
+    public void findByTokenShouldReturnNullWhenTokenExpired() {
+        BoundedOAuth2AuthorizationService service = new BoundedOAuth2AuthorizationService(10, 0, clock);
+        service.save(createAuthorization("1", "token-1", Duration.ofMinutes(5)));
+
+        clock.advance(Duration.ofMinutes(5));
+
+        Assertions.assertNull(service.findByToken("token-1", OAuth2TokenType.ACCESS_TOKEN));
+        Assertions.assertEquals(0, service.size());
+        Assertions.assertEquals(1L, service.getExpirations());
+    }
+
+    @Test
+    public void sweepShouldRemoveOnlyExpiredAuthorizations() {
+        BoundedOAuth2AuthorizationService service = new BoundedOAuth2AuthorizationService(10, 0, clock);
+        service.save(createAuthorization("1", "token-1", Duration.ofMinutes(1)));
+        service.save(createAuthorization("2", "token-2", Duration.ofMinutes(10)));
+
+        clock.advance(Duration.ofMinutes(2));
+
+        Assertions.assertEquals(1, service.sweep());
+        Assertions.assertEquals(1, service.size());
+        Assertions.assertNotNull(service.findById("2"));
+    }
+
+    @Test
+    public void removeShouldDropAuthorizationAndItsTokens() {
+        BoundedOAuth2AuthorizationService service = new BoundedOAuth2AuthorizationService(10, 0, clock);
+        OAuth2Authorization authorization = createAuthorization("1", "token-1", Duration.ofMinutes(5));
+        service.save(authorization);
+
+        service.remove(authorization);
+
+        Assertions.assertEquals(0, service.size());
+        Assertions.assertNull(service.findByToken("token-1", null));
+    }
+
+    private OAuth2Authorization createAuthorization(String id, String tokenValue, Duration timeToLive) {
+        Instant issuedAt = clock.instant();
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER,
+                tokenValue, issuedAt, issuedAt.plus(timeToLive));
+        return OAuth2Authorization.withRegisteredClient(registeredClient)
+                .id(id)
+                .principalName("maria@gmail.com")
+                .authorizationGrantType(new AuthorizationGrantType("password"))
+                .accessToken(accessToken)
+                .build();
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.devsuperior.dscommerce.config;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.authorization.config.annotation.web.configuration.OAuth2AuthorizationServerConfiguration;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Sign and verify cost per algorithm, through the same encoder and decoder the application uses.
+ * Run with -Dbenchmark=true.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class JwtSigningBenchmarkTests {
+
+    @Test
+    public void signAndVerifyCostPerAlgorithm(TestReporter reporter) {
+        int iterations = Integer.getInteger("benchmark.iterations", 2000);
+        for (SignatureAlgorithm algorithm : new SignatureAlgorithm[] {SignatureAlgorithm.RS256, SignatureAlgorithm.ES256}) {
+            SigningKeys keys = SigningKeys.generate(algorithm);
+            NimbusJwtEncoder encoder = new NimbusJwtEncoder(source(keys.getSigningKeySet()));
+            JwtDecoder decoder = OAuth2AuthorizationServerConfiguration.jwtDecoder(source(keys.getVerificationKeys()));
+            JwtEncoderParameters parameters = JwtEncoderParameters.from(JwsHeader.with(algorithm).build(),
+                    JwtClaimsSet.builder()
+                            .claim("username", "maria@gmail.com")
+                            .claim("authorities", List.of("ROLE_CLIENT"))
+                            .expiresAt(Instant.now().plusSeconds(3600))
+                            .build());
+
+            // warm up before timing
+            String token = null;
+            for (int i = 0; i < iterations; i++) {
+                token = encoder.encode(parameters).getTokenValue();
+                decoder.decode(token);
+            }
+
+            long begin = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                token = encoder.encode(parameters).getTokenValue();
+            }
+            double signMicros = (System.nanoTime() - begin) / 1e3 / iterations;
+
+            begin = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                decoder.decode(token);
+            }
+            double verifyMicros = (System.nanoTime() - begin) / 1e3 / iterations;
+
+            Assertions.assertEquals("maria@gmail.com", decoder.decode(token).getClaimAsString("username"));
+            reporter.publishEntry(algorithm.getName(), String.format("sign %.1f us/op, verify %.1f us/op, token %d bytes",
+                    signMicros, verifyMicros, token.length()));
+        }
+    }
+
+    private static JWKSource<SecurityContext> source(JWKSet jwkSet) {
+        return (jwkSelector, securityContext) -> jwkSelector.select(jwkSet);
+    }
+}
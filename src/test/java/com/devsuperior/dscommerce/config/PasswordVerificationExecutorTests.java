@@ -0,0 +1,78 @@
+package com.devsuperior.dscommerce.config;
+
+import com.devsuperior.dscommerce.services.exceptions.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class PasswordVerificationExecutorTests {
+
+    private PasswordVerificationExecutor executor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        executor = new PasswordVerificationExecutor(1, 1, 5000L);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        executor.stop();
+    }
+
+    @Test
+    public void executeShouldReturnResultAndRecordLatency() {
+        Assertions.assertTrue(executor.execute(() -> true));
+        Assertions.assertEquals(1L, executor.getCompleted());
+        Assertions.assertTrue(executor.getMaxNanos() > 0);
+    }
+
+    @Test
+    public void executeShouldRejectImmediatelyWhenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> executor.execute(() -> {
+            running.countDown();
+            await(release);
+            return true;
+        }));
+        running.await(5, TimeUnit.SECONDS);
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> executor.execute(() -> true));
+        while (executor.getQueueDepth() == 0) {
+            Thread.onSpinWait();
+        }
+
+        Assertions.assertThrows(ServiceUnavailableException.class, () -> executor.execute(() -> true));
+        Assertions.assertEquals(1L, executor.getRejected());
+
+        release.countDown();
+        Assertions.assertTrue(first.get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void executeShouldThrowServiceUnavailableWhenTimeoutExpires() {
+        PasswordVerificationExecutor slowExecutor = new PasswordVerificationExecutor(1, 1, 10L);
+        try {
+            Assertions.assertThrows(ServiceUnavailableException.class, () -> slowExecutor.execute(() -> {
+                await(new CountDownLatch(1));
+                return true;
+            }));
+            Assertions.assertEquals(1L, slowExecutor.getTimedOut());
+        } finally {
+            slowExecutor.stop();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.devsuperior.dscommerce.config;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.authorization.config.annotation.web.configuration.OAuth2AuthorizationServerConfiguration;
+
+import java.time.Instant;
+
+public class SigningKeysTests {
+
+    private static final Resource KEYSTORE = new ClassPathResource("keys/jwt-test.p12");
+    private static final char[] PASSWORD = "changeit".toCharArray();
+
+    @Test
+    public void loadShouldSignWithActiveAliasAndPublishEveryPublicKey() {
+        SigningKeys keys = SigningKeys.load(KEYSTORE, "PKCS12", PASSWORD, "key-2025", SignatureAlgorithm.RS256);
+
+        Assertions.assertEquals("key-2025", keys.getSigningKey().getKeyID());
+        Assertions.assertTrue(keys.getSigningKey().isPrivate());
+        Assertions.assertEquals(2, keys.getVerificationKeys().getKeys().size());
+        Assertions.assertEquals("key-2025", keys.getVerificationKeys().getKeys().get(0).getKeyID());
+        Assertions.assertTrue(keys.getVerificationKeys().getKeys().stream().noneMatch(x -> x.isPrivate()));
+    }
+
+    @Test
+    public void tokenSignedWithRetiredKeyShouldStillBeValidAfterRotation() {
+        SigningKeys beforeRotation = SigningKeys.load(KEYSTORE, "PKCS12", PASSWORD, "key-2024", SignatureAlgorithm.RS256);
+        SigningKeys afterRotation = SigningKeys.load(KEYSTORE, "PKCS12", PASSWORD, "key-2025", SignatureAlgorithm.RS256);
+
+        String oldToken = encode(beforeRotation);
+        String newToken = encode(afterRotation);
+        JwtDecoder decoder = OAuth2AuthorizationServerConfiguration.jwtDecoder(source(afterRotation.getVerificationKeys()));
+
+        Assertions.assertEquals("maria@gmail.com", decoder.decode(oldToken).getClaimAsString("username"));
+        Assertions.assertEquals("key-2025", decoder.decode(newToken).getHeaders().get("kid"));
+    }
+
+    @Test
+    public void loadShouldThrowWhenActiveAliasIsMissing() {
+        Assertions.assertThrows(IllegalStateException.class, () -> {
+            SigningKeys.load(KEYSTORE, "PKCS12", PASSWORD, "key-1999", SignatureAlgorithm.RS256);
+        });
+    }
+
+    @Test
+    public void loadShouldThrowWhenActiveKeyDoesNotMatchAlgorithm() {
+        Assertions.assertThrows(IllegalStateException.class, () -> {
+            SigningKeys.load(KEYSTORE, "PKCS12", PASSWORD, "key-2025", SignatureAlgorithm.ES256);
+        });
+    }
+
+    @Test
+    public void generateShouldCreateKeyThatSignsAndVerifiesEs256() {
+        SigningKeys keys = SigningKeys.generate(SignatureAlgorithm.ES256);
+        JwtDecoder decoder = OAuth2AuthorizationServerConfiguration.jwtDecoder(source(keys.getVerificationKeys()));
+
+        Jwt jwt = decoder.decode(encode(keys));
+
+        Assertions.assertEquals("ES256", jwt.getHeaders().get("alg").toString());
+        Assertions.assertEquals("maria@gmail.com", jwt.getClaimAsString("username"));
+    }
+
+    private static String encode(SigningKeys keys) {
+        NimbusJwtEncoder encoder = new NimbusJwtEncoder(source(keys.getSigningKeySet()));
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .claim("username", "maria@gmail.com")
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build();
+        JwsHeader header = JwsHeader.with(keys.getAlgorithm()).build();
+        Jwt jwt = encoder.encode(JwtEncoderParameters.from(header, claims));
+        return jwt.getTokenValue();
+    }
+
+    private static JWKSource<SecurityContext> source(JWKSet jwkSet) {
+        return (jwkSelector, securityContext) -> jwkSelector.select(jwkSet);
+    }
+}
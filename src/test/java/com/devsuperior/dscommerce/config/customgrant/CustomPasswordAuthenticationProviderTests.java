@@ -0,0 +1,234 @@
+package com.devsuperior.dscommerce.config.customgrant;
+
+import com.devsuperior.dscommerce.config.BoundedOAuth2AuthorizationService;
+import com.devsuperior.dscommerce.config.BoundedPasswordEncoder;
+import com.devsuperior.dscommerce.config.PasswordVerificationExecutor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.security.oauth2.server.authorization.authentication.OAuth2AccessTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.authorization.authentication.OAuth2ClientAuthenticationToken;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.security.oauth2.server.authorization.context.AuthorizationServerContext;
+import org.springframework.security.oauth2.server.authorization.context.AuthorizationServerContextHolder;
+import org.springframework.security.oauth2.server.authorization.settings.AuthorizationServerSettings;
+import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenGenerator;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class CustomPasswordAuthenticationProviderTests {
+
+    private static final int USERS = 64;
+
+    private RegisteredClient registeredClient;
+    private BoundedOAuth2AuthorizationService authorizationService;
+    private UserDetailsService userDetailsService;
+    private OAuth2TokenGenerator<OAuth2AccessToken> tokenGenerator;
+    private CustomPasswordAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        registeredClient = RegisteredClient.withId("client")
+                .clientId("myclientid")
+                .scope("read")
+                .scope("write")
+                .authorizationGrantType(new AuthorizationGrantType("password"))
+                .build();
+        authorizationService = new BoundedOAuth2AuthorizationService(100000, 0);
+
+        userDetailsService = username -> User.withUsername(username)
+                .password(password(username))
+                .authorities(scope(username))
+                .build();
+
+        // encodes who the token was issued for, as seen by the token generator
+        tokenGenerator = context -> {
+            CustomUserAuthorities user = (CustomUserAuthorities) ((Authentication) context.getPrincipal()).getDetails();
+            Instant now = Instant.now();
+            return new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER,
+                    user.getUsername() + ":" + String.join(",", context.getAuthorizedScopes()) + ":" + UUID.randomUUID(),
+                    now, now.plus(Duration.ofMinutes(5)));
+        };
+
+        provider = new CustomPasswordAuthenticationProvider(authorizationService, tokenGenerator,
+                userDetailsService, NoOpPasswordEncoder.getInstance());
+    }
+
+    @Test
+    public void authenticateShouldIssueTokenForRequestedUser() {
+        OAuth2AccessToken token = authenticate("user1", password("user1")).getAccessToken();
+
+        Assertions.assertTrue(token.getTokenValue().startsWith("user1:write:"));
+        Assertions.assertEquals(Set.of("write"), token.getScopes());
+        Assertions.assertNotNull(authorizationService.findByToken(token.getTokenValue(), OAuth2TokenType.ACCESS_TOKEN));
+    }
+
+    @Test
+    public void authenticateShouldThrowWhenPasswordDoesNotMatch() {
+        Assertions.assertThrows(OAuth2AuthenticationException.class, () -> authenticate("user1", "wrong"));
+    }
+
+    @Test
+    public void authenticateShouldKeepRequestsIsolatedUnderConcurrency() throws Exception {
+        int threads = 32;
+        int requestsPerThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int mismatches = 0;
+                    for (int i = 0; i < requestsPerThread; i++) {
+                        String username = "user" + ((offset + i) % USERS);
+                        OAuth2AccessToken token = authenticate(username, password(username)).getAccessToken();
+                        OAuth2Authorization authorization = authorizationService.findByToken(
+                                token.getTokenValue(), OAuth2TokenType.ACCESS_TOKEN);
+                        if (!token.getTokenValue().startsWith(username + ":" + scope(username) + ":")
+                                || !token.getScopes().equals(Set.of(scope(username)))
+                                || authorization == null
+                                || !authorization.getAuthorizedScopes().equals(Set.of(scope(username)))) {
+                            mismatches++;
+                        }
+                    }
+                    return mismatches;
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                Assertions.assertEquals(0, result.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assertions.assertEquals(threads * requestsPerThread, authorizationService.size());
+    }
+
+    @Test
+    public void authenticateShouldUpgradePasswordHashWhenEncoderAsksForIt() {
+        Map<String, String> upgraded = new ConcurrentHashMap<>();
+        provider = new CustomPasswordAuthenticationProvider(authorizationService, tokenGenerator, userDetailsService,
+                new UpgradingPasswordEncoder(), (user, newPassword) -> {
+                    upgraded.put(user.getUsername(), newPassword);
+                    return user;
+                });
+
+        authenticate("user1", password("user1"));
+
+        Assertions.assertEquals("{upgraded}" + password("user1"), upgraded.get("user1"));
+    }
+
+    @Test
+    public void authenticateShouldThrowTemporarilyUnavailableWhenPasswordPoolRejects() throws Exception {
+        PasswordVerificationExecutor executor = new PasswordVerificationExecutor(1, 1, 5000);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // occupies the single worker and the single queue slot
+            for (int i = 0; i < 2; i++) {
+                callers.submit(() -> executor.execute(() -> {
+                    try {
+                        return release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                }));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (executor.getQueueDepth() < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            provider = new CustomPasswordAuthenticationProvider(authorizationService, tokenGenerator, userDetailsService,
+                    new BoundedPasswordEncoder(NoOpPasswordEncoder.getInstance(), executor));
+
+            OAuth2AuthenticationException e = Assertions.assertThrows(OAuth2AuthenticationException.class,
+                    () -> authenticate("user1", password("user1")));
+
+            Assertions.assertEquals(OAuth2ErrorCodes.TEMPORARILY_UNAVAILABLE, e.getError().getErrorCode());
+            Assertions.assertEquals(1L, executor.getRejected());
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+            executor.stop();
+        }
+    }
+
+    private OAuth2AccessTokenAuthenticationToken authenticate(String username, String password) {
+        OAuth2ClientAuthenticationToken clientPrincipal = new OAuth2ClientAuthenticationToken(
+                registeredClient, ClientAuthenticationMethod.CLIENT_SECRET_BASIC, null);
+        CustomPasswordAuthenticationToken authentication = new CustomPasswordAuthenticationToken(
+                clientPrincipal, null, Map.of("username", username, "password", password));
+        AuthorizationServerContextHolder.setContext(new TestAuthorizationServerContext());
+        try {
+            return (OAuth2AccessTokenAuthenticationToken) provider.authenticate(authentication);
+        } finally {
+            AuthorizationServerContextHolder.resetContext();
+        }
+    }
+
+    private static String password(String username) {
+        return "pwd-" + username;
+    }
+
+    private static String scope(String username) {
+        return Integer.parseInt(username.substring(4)) % 2 == 0 ? "read" : "write";
+    }
+
+    private static class UpgradingPasswordEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "{upgraded}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return true;
+        }
+    }
+
+    private static class TestAuthorizationServerContext implements AuthorizationServerContext {
+        private static final AuthorizationServerSettings SETTINGS = AuthorizationServerSettings.builder().build();
+
+        @Override
+        public String getIssuer() {
+            return "http://localhost";
+        }
+
+        @Override
+        public AuthorizationServerSettings getAuthorizationServerSettings() {
+            return SETTINGS;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.devsuperior.dscommerce.config.customgrant;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+
+public class OAuth2TokenErrorResponseHandlerTests {
+
+    private final OAuth2TokenErrorResponseHandler handler = new OAuth2TokenErrorResponseHandler();
+
+    @Test
+    public void onAuthenticationFailureShouldReturnServiceUnavailableWhenTemporarilyUnavailable() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        handler.onAuthenticationFailure(new MockHttpServletRequest(), response,
+                new OAuth2AuthenticationException(new OAuth2Error(OAuth2ErrorCodes.TEMPORARILY_UNAVAILABLE)));
+
+        Assertions.assertEquals(503, response.getStatus());
+        Assertions.assertEquals("1", response.getHeader("Retry-After"));
+        Assertions.assertTrue(response.getContentAsString().contains("\"error\":\"temporarily_unavailable\""));
+    }
+
+    @Test
+    public void onAuthenticationFailureShouldReturnBadRequestForOtherErrors() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        handler.onAuthenticationFailure(new MockHttpServletRequest(), response,
+                new OAuth2AuthenticationException(new OAuth2Error(OAuth2ErrorCodes.INVALID_GRANT)));
+
+        Assertions.assertEquals(400, response.getStatus());
+        Assertions.assertNull(response.getHeader("Retry-After"));
+        Assertions.assertTrue(response.getContentAsString().contains("\"error\":\"invalid_grant\""));
+    }
+}
@@ -4,6 +4,7 @@ import com.devsuperior.dscommerce.dto.OrderDTO;
 import com.devsuperior.dscommerce.dto.ProductDTO;
 import com.devsuperior.dscommerce.entities.*;
 import com.devsuperior.dscommerce.tests.ProductFactory;
+import com.devsuperior.dscommerce.tests.SqlStatementCounter;
 import com.devsuperior.dscommerce.tests.TokenUtil;
 import com.devsuperior.dscommerce.tests.UserFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -38,6 +39,9 @@ public class OrderControllerIT {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
     private String clientUsername, clientPassword, adminUsername, adminPassword;
     private String adminToken, clientToken, invalidToken;
     private Long existingOrderId, nonExistingOrderId;
@@ -61,7 +65,7 @@ public class OrderControllerIT {
         invalidToken = adminToken + "xpto";
 
         user = UserFactory.createClientUser();
-        order = new Order(null, Instant.now(), OrderStatus.WAITING_PAYMENT, user, null);
+        order = new Order(null, Instant.now(), OrderStatus.WAITING_PAYMENT, user);
 
         Product product = ProductFactory.createProduct();
         OrderItem orderItem = new OrderItem(order, product, 2, 10.0);
@@ -135,6 +139,135 @@ public class OrderControllerIT {
         result.andExpect(status().isNotFound());
     }
 
+    @Test
+    public void findByIdShouldStayWithinStatementBudget() throws Exception {
+        sqlStatementCounter.reset();
+
+        mockMvc.perform(get("/orders/{id}", existingOrderId)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        // logged user, its roles, order graph and payment
+        sqlStatementCounter.assertWithinBudget(4);
+    }
+
+    @Test
+    public void findMineShouldStayWithinStatementBudget() throws Exception {
+        sqlStatementCounter.reset();
+
+        mockMvc.perform(get("/orders/me")
+                        .header("Authorization", "Bearer " + clientToken)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        // logged user, id page, order graphs and payments
+        sqlStatementCounter.assertWithinBudget(4);
+    }
+
+    @Test
+    public void findMineShouldReturnClientOrdersNewestFirst() throws Exception {
+
+        ResultActions result = mockMvc
+                .perform(get("/orders/me?size=1")
+                        .header("Authorization", "Bearer " + clientToken)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.content[0].id").value(3L));
+        result.andExpect(jsonPath("$.content[0].items[0].productId").value(1L));
+        result.andExpect(jsonPath("$.hasNext").value(true));
+
+        String nextCursor = objectMapper.readTree(result.andReturn().getResponse().getContentAsString())
+                .get("nextCursor").asText();
+
+        ResultActions next = mockMvc
+                .perform(get("/orders/me?size=1&after={cursor}", nextCursor)
+                        .header("Authorization", "Bearer " + clientToken)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        next.andExpect(status().isOk());
+        next.andExpect(jsonPath("$.content[0].id").value(1L));
+        next.andExpect(jsonPath("$.content[0].payment").exists());
+        next.andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    public void insertShouldReturnSameOrderWhenIdempotencyKeyIsRepeated() throws Exception {
+        orderDTO = new OrderDTO(order);
+        String jsonBody = objectMapper.writeValueAsString(orderDTO);
+
+        ResultActions first = mockMvc
+                .perform(post("/orders")
+                        .header("Authorization", "Bearer " + clientToken)
+                        .header("Idempotency-Key", "order-it-replay")
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        first.andExpect(status().isCreated());
+        Long orderId = objectMapper.readTree(first.andReturn().getResponse().getContentAsString()).get("id").asLong();
+
+        ResultActions second = mockMvc
+                .perform(post("/orders")
+                        .header("Authorization", "Bearer " + clientToken)
+                        .header("Idempotency-Key", "order-it-replay")
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        second.andExpect(status().isCreated());
+        second.andExpect(jsonPath("$.id").value(orderId));
+    }
+
+    @Test
+    public void insertShouldReturnUnprocessableEntityWhenIdempotencyKeyIsReusedWithOtherOrder() throws Exception {
+        orderDTO = new OrderDTO(order);
+        String jsonBody = objectMapper.writeValueAsString(orderDTO);
+
+        mockMvc.perform(post("/orders")
+                        .header("Authorization", "Bearer " + clientToken)
+                        .header("Idempotency-Key", "order-it-mismatch")
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+
+        order.getItems().forEach(item -> item.setQuantity(item.getQuantity() + 1));
+        String otherJsonBody = objectMapper.writeValueAsString(new OrderDTO(order));
+
+        ResultActions result = mockMvc
+                .perform(post("/orders")
+                        .header("Authorization", "Bearer " + clientToken)
+                        .header("Idempotency-Key", "order-it-mismatch")
+                        .content(otherJsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isUnprocessableEntity());
+        result.andExpect(jsonPath("$.error").value("Idempotency-Key já utilizada com uma requisição diferente"));
+    }
+
+    @Test
+    public void insertShouldReturnUnprocessableEntityWhenProductDoesNotExistAndClientLogged() throws Exception {
+        Product product = ProductFactory.createProduct();
+        product.setId(100L);
+        order.getItems().clear();
+        order.getItems().add(new OrderItem(order, product, 2, 10.0));
+        orderDTO = new OrderDTO(order);
+        String jsonBody = objectMapper.writeValueAsString(orderDTO);
+
+        ResultActions result = mockMvc
+                .perform(post("/orders")
+                        .header("Authorization", "Bearer " + clientToken)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isUnprocessableEntity());
+        result.andExpect(jsonPath("$.errors[0].fieldName").value("items[0].productId"));
+    }
+
     @Test
     public void findByIdShouldReturnUnauthorizedWhenIdExistsAndInvalidToken() throws Exception {
 
@@ -3,6 +3,7 @@ package com.devsuperior.dscommerce.controllers.it;
 import com.devsuperior.dscommerce.dto.ProductDTO;
 import com.devsuperior.dscommerce.entities.Category;
 import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.tests.SqlStatementCounter;
 import com.devsuperior.dscommerce.tests.TokenUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,8 +19,7 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -35,6 +35,9 @@ public class ProductControllerIT {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
     private Product product;
     private ProductDTO productDTO;
 
@@ -69,6 +72,146 @@ public class ProductControllerIT {
         productDTO = new ProductDTO(product);
     }
 
+    @Test
+    public void findByIdShouldReturnProductWithETagAndLastModified() throws Exception {
+
+        ResultActions result = mockMvc
+                .perform(get("/products/{id}", existingProductId)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.id").value(existingProductId));
+        result.andExpect(header().exists("ETag"));
+        result.andExpect(header().exists("Last-Modified"));
+    }
+
+    @Test
+    public void findByIdShouldReturnETagMatchingBodyVersion() throws Exception {
+
+        ResultActions result = mockMvc
+                .perform(get("/products/{id}", existingProductId)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        int version = objectMapper.readTree(result.andReturn().getResponse().getContentAsString()).get("version").asInt();
+        result.andExpect(status().isOk());
+        result.andExpect(header().string("ETag", "\"" + existingProductId + "-" + version + "\""));
+    }
+
+    @Test
+    public void updateShouldReturnNewVersionWhenAdminLogged() throws Exception {
+        int version = objectMapper.readTree(mockMvc
+                .perform(get("/products/{id}", existingProductId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString()).get("version").asInt();
+        String jsonBody = objectMapper.writeValueAsString(productDTO);
+
+        ResultActions result = mockMvc
+                .perform(put("/products/{id}", existingProductId)
+                        .header("Authorization", "BEARER " + adminToken)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.version").value(version + 1));
+        result.andExpect(jsonPath("$.updatedAt").exists());
+    }
+
+    @Test
+    public void findByIdShouldReturnNotModifiedWhenETagMatches() throws Exception {
+
+        String eTag = mockMvc
+                .perform(get("/products/{id}", existingProductId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getHeader("ETag");
+
+        ResultActions result = mockMvc
+                .perform(get("/products/{id}", existingProductId)
+                        .header("If-None-Match", eTag)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isNotModified());
+        result.andExpect(content().string(""));
+    }
+
+    @Test
+    public void findByIdShouldReturnNotModifiedFromVersionQueryAlone() throws Exception {
+        sqlStatementCounter.reset();
+
+        ResultActions result = mockMvc
+                .perform(get("/products/{id}", existingProductId)
+                        .header("If-None-Match", "\"" + existingProductId + "-0\"")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isNotModified());
+        result.andExpect(header().string("ETag", "\"" + existingProductId + "-0\""));
+        sqlStatementCounter.assertWithinBudget(1);
+    }
+
+    @Test
+    public void findByIdShouldReturnNotModifiedWhenNotModifiedSince() throws Exception {
+
+        String lastModified = mockMvc
+                .perform(get("/products/{id}", existingProductId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getHeader("Last-Modified");
+
+        ResultActions result = mockMvc
+                .perform(get("/products/{id}", existingProductId)
+                        .header("If-Modified-Since", lastModified)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void findByIdShouldReturnNotFoundWhenIdDoesNotExist() throws Exception {
+
+        ResultActions result = mockMvc
+                .perform(get("/products/{id}", nonExistingProductId)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void findAllByIdsShouldReturnProductsInRequestOrderAndMissingIds() throws Exception {
+
+        ResultActions result = mockMvc
+                .perform(get("/products?ids=3,{nonExisting},1", nonExistingProductId)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.content[0].id").value(3L));
+        result.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"));
+        result.andExpect(jsonPath("$.content[0].categories").exists());
+        result.andExpect(jsonPath("$.content[1].id").value(1L));
+        result.andExpect(jsonPath("$.missing[0]").value(nonExistingProductId));
+    }
+
+    @Test
+    public void findAllShouldStayWithinStatementBudget() throws Exception {
+        sqlStatementCounter.reset();
+
+        mockMvc.perform(get("/products?size=12")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        // page query and count query
+        sqlStatementCounter.assertWithinBudget(2);
+    }
+
+    @Test
+    public void findAllByIdsShouldStayWithinStatementBudget() throws Exception {
+        sqlStatementCounter.reset();
+
+        mockMvc.perform(get("/products?ids=4,5,6,7,8")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        sqlStatementCounter.assertWithinBudget(1);
+    }
+
     @Test
     public void findAllShouldReturnPageWhenNameParamIsnNotEmpty() throws Exception {
 
@@ -99,6 +242,94 @@ public class ProductControllerIT {
                 .value("https://raw.githubusercontent.com/devsuperior/dscatalog-resources/master/backend/img/1-big.jpg"));
     }
 
+    @Test
+    public void findAllShouldReturnSliceWithoutTotalWhenWithTotalIsFalse() throws Exception {
+
+        ResultActions result = mockMvc
+                .perform(get("/products?withTotal=false&size=12")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.content[0].id").value(1L));
+        result.andExpect(jsonPath("$.last").value(false));
+        result.andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    public void countShouldReturnTotalOfProductsMatchingName() throws Exception {
+
+        ResultActions result = mockMvc
+                .perform(get("/products/count?name={productName}", productName)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.total").value(1L));
+    }
+
+    @Test
+    public void findAllByCursorShouldReturnPagesInIdOrder() throws Exception {
+
+        ResultActions result = mockMvc
+                .perform(get("/products/cursor?size=2")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.content[0].id").value(1L));
+        result.andExpect(jsonPath("$.content[1].id").value(2L));
+        result.andExpect(jsonPath("$.hasNext").value(true));
+
+        String nextCursor = objectMapper.readTree(result.andReturn().getResponse().getContentAsString())
+                .get("nextCursor").asText();
+
+        ResultActions next = mockMvc
+                .perform(get("/products/cursor?after={cursor}&size=2", nextCursor)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        next.andExpect(status().isOk());
+        next.andExpect(jsonPath("$.content[0].id").value(3L));
+        next.andExpect(jsonPath("$.content[1].id").value(4L));
+    }
+
+    @Test
+    public void findAllByCursorShouldReturnBadRequestWhenCursorIsInvalid() throws Exception {
+
+        ResultActions result = mockMvc
+                .perform(get("/products/cursor?after=xpto&size=2")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void findAllByIdsShouldReturnBadRequestWhenCombinedWithCursor() throws Exception {
+
+        ResultActions result = mockMvc
+                .perform(get("/products?ids=1,2&after=")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void findAllShouldReturnBadRequestWhenCursorIsSentToOffsetListing() throws Exception {
+
+        ResultActions result = mockMvc
+                .perform(get("/products?after=&size=2")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void findAllByCursorShouldReturnBadRequestWhenCombinedWithPage() throws Exception {
+
+        ResultActions result = mockMvc
+                .perform(get("/products/cursor?page=1&size=2")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isBadRequest());
+    }
+
     @Test
     public void insertShouldReturnProductDTOCreatedWhenAdminLogged() throws Exception {
 
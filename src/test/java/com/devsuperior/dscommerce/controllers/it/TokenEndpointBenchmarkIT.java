@@ -0,0 +1,79 @@
+package com.devsuperior.dscommerce.controllers.it;
+
+import com.devsuperior.dscommerce.tests.TokenUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password grant throughput against /oauth2/token. Run with -Dbenchmark=true.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class TokenEndpointBenchmarkIT {
+
+    private static final String[] USERNAMES = {"maria@gmail.com", "alex@gmail.com"};
+    private static final String PASSWORD = "123456";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenUtil tokenUtil;
+
+    @Autowired
+    private JwtDecoder jwtDecoder;
+
+    @Test
+    public void passwordGrantThroughput(TestReporter reporter) throws Exception {
+        int requestsPerThread = Integer.getInteger("benchmark.requests", 50);
+        for (int threads : new int[] {1, 4, 16, 64}) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+            try {
+                for (int t = 0; t < threads; t++) {
+                    int offset = t;
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        int mismatches = 0;
+                        for (int i = 0; i < requestsPerThread; i++) {
+                            String username = USERNAMES[(offset + i) % USERNAMES.length];
+                            String token = tokenUtil.obtainAccessToken(mockMvc, username, PASSWORD);
+                            if (!username.equals(jwtDecoder.decode(token).getClaimAsString("username"))) {
+                                mismatches++;
+                            }
+                        }
+                        return mismatches;
+                    }));
+                }
+                long begin = System.nanoTime();
+                start.countDown();
+                for (Future<Integer> result : results) {
+                    Assertions.assertEquals(0, result.get(10, TimeUnit.MINUTES));
+                }
+                double seconds = (System.nanoTime() - begin) / 1e9;
+                long requests = (long) threads * requestsPerThread;
+                reporter.publishEntry("password grant, threads=" + threads,
+                        String.format("requests=%d %.1f req/s", requests, requests / seconds));
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.devsuperior.dscommerce.repositories;
+
+import com.devsuperior.dscommerce.entities.Order;
+import com.devsuperior.dscommerce.entities.OrderItem;
+import com.devsuperior.dscommerce.entities.OrderStatus;
+import com.devsuperior.dscommerce.entities.User;
+import com.devsuperior.dscommerce.tests.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@SpringBootTest
+@Transactional
+public class OrderItemRepositoryTests {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        User client = entityManager.getReference(User.class, 1L);
+        order = new Order(null, Instant.now(), OrderStatus.WAITING_PAYMENT, client);
+        for (long productId = 1L; productId <= 10L; productId++) {
+            order.getItems().add(new OrderItem(order, productRepository.getReferenceById(productId), 1, 10.0));
+        }
+    }
+
+    @Test
+    public void saveAllShouldInsertItemsInOneBatchWithoutSelects() {
+        orderRepository.save(order);
+        sqlStatementCounter.reset();
+        orderItemRepository.saveAll(order.getItems());
+        entityManager.flush();
+
+        // the order insert is deferred to flush, then one batched insert for all items
+        Assertions.assertEquals(2L, sqlStatementCounter.getCount());
+        Assertions.assertTrue(order.getItems().stream().noneMatch(x -> x.isNew()));
+    }
+
+    @Test
+    public void hashingItemsShouldNotInitializeOrderOrProductProxies() {
+        entityManager.clear();
+        List<OrderItem> items = orderItemRepository.findAll();
+        sqlStatementCounter.reset();
+
+        Set<OrderItem> set = new HashSet<>(items);
+
+        Assertions.assertEquals(items.size(), set.size());
+        Assertions.assertTrue(items.stream().noneMatch(x -> Hibernate.isInitialized(x.getProduct())));
+        Assertions.assertTrue(items.stream().noneMatch(x -> Hibernate.isInitialized(x.getOrder())));
+        Assertions.assertEquals(0L, sqlStatementCounter.getCount());
+    }
+}
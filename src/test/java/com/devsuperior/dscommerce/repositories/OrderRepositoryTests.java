@@ -0,0 +1,87 @@
+package com.devsuperior.dscommerce.repositories;
+
+import com.devsuperior.dscommerce.dto.OrderDTO;
+import com.devsuperior.dscommerce.entities.Order;
+import com.devsuperior.dscommerce.entities.OrderItem;
+import com.devsuperior.dscommerce.entities.Payment;
+import com.devsuperior.dscommerce.tests.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@SpringBootTest
+@Transactional
+public class OrderRepositoryTests {
+
+    @Autowired
+    private OrderRepository repository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        entityManager.clear();
+        sqlStatementCounter.reset();
+    }
+
+    @Test
+    public void orderDetailShouldLoadOrderGraphInOneStatementAndPaymentByIdInAnother() {
+        Order order = repository.searchWithItemsById(1L).get();
+        Payment payment = paymentRepository.findById(1L).orElse(null);
+        OrderDTO dto = new OrderDTO(order, payment);
+
+        Assertions.assertEquals(2, dto.getItems().size());
+        Assertions.assertNotNull(dto.getPayment());
+        Assertions.assertEquals(2L, sqlStatementCounter.getCount());
+    }
+
+    @Test
+    public void loadingOrderShouldNotQueryPayment() {
+        Order order = repository.findById(3L).get();
+
+        Assertions.assertEquals(3L, order.getId());
+        Assertions.assertEquals(0L, sqlStatementCounter.getEntityLoadCount(Payment.class));
+    }
+
+    @Test
+    public void clientOrderPageShouldLoadOrdersItemsProductsAndPaymentsInThreeStatements() {
+        List<Long> ids = repository.searchIdsByClient(1L, PageRequest.of(0, 10));
+        Map<Long, Payment> payments = paymentRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(x -> x.getId(), x -> x));
+        List<OrderDTO> dto = repository.searchWithItemsByIds(ids).stream()
+                .map(x -> new OrderDTO(x, payments.get(x.getId()))).toList();
+
+        Assertions.assertEquals(List.of(3L, 1L), ids);
+        Assertions.assertEquals(2, dto.size());
+        Assertions.assertEquals(1, payments.size());
+        Assertions.assertEquals(3L, sqlStatementCounter.getCount());
+    }
+
+    @Test
+    public void ordersContainingProductShouldBePagedWithoutLoadingItems() {
+        Page<Order> page = repository.searchByProduct(3L, PageRequest.of(0, 1, Sort.by("id")));
+
+        Assertions.assertEquals(2L, page.getTotalElements());
+        Assertions.assertEquals(1L, page.getContent().get(0).getId());
+        Assertions.assertEquals(0L, sqlStatementCounter.getEntityLoadCount(OrderItem.class));
+        Assertions.assertEquals(2L, sqlStatementCounter.getCount());
+    }
+}
@@ -0,0 +1,75 @@
+package com.devsuperior.dscommerce.repositories;
+
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.tests.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@SpringBootTest
+@Transactional
+public class ProductRepositoryTests {
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        entityManager.clear();
+        sqlStatementCounter.reset();
+    }
+
+    @Test
+    public void findByIdShouldLoadProductAndCategoriesInOneStatement() {
+        Product product = repository.findById(2L).get();
+        ProductDTO dto = new ProductDTO(product);
+
+        Assertions.assertEquals(2, dto.getCategories().size());
+        Assertions.assertEquals(1L, sqlStatementCounter.getCount());
+    }
+
+    @Test
+    public void pageOfProductsWithCategoriesShouldLoadInConstantNumberOfStatements() {
+        Page<Product> page = repository.findAll(PageRequest.of(0, 20));
+        List<ProductDTO> dto = page.map(x -> new ProductDTO(x)).toList();
+
+        Assertions.assertEquals(20, dto.size());
+        // page query, count query and one batched fetch of tb_product_category
+        Assertions.assertEquals(3L, sqlStatementCounter.getCount());
+    }
+
+    @Test
+    public void searchByNameShouldProjectListingColumnsWithoutLoadingEntities() {
+        Page<ProductMinDTO> page = repository.searchByName("", PageRequest.of(0, 20));
+
+        Assertions.assertEquals(20, page.getNumberOfElements());
+        Assertions.assertEquals(0L, sqlStatementCounter.getEntityLoadCount());
+        Assertions.assertEquals(2L, sqlStatementCounter.getCount());
+    }
+
+    @Test
+    public void productsInOrderShouldBePagedProjection() {
+        Page<ProductMinDTO> page = repository.searchByOrder(1L, PageRequest.of(0, 1));
+
+        Assertions.assertEquals(2L, page.getTotalElements());
+        Assertions.assertEquals(1, page.getContent().size());
+        Assertions.assertEquals(0L, sqlStatementCounter.getEntityLoadCount());
+        Assertions.assertEquals(2L, sqlStatementCounter.getCount());
+    }
+}
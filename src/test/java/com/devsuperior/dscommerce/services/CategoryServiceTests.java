@@ -1,9 +1,11 @@
 package com.devsuperior.dscommerce.services;
 
 import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.dto.CategorySnapshotDTO;
 import com.devsuperior.dscommerce.entities.Category;
 import com.devsuperior.dscommerce.repositories.CategoryRepository;
 import com.devsuperior.dscommerce.tests.CategoryFactory;
+import com.devsuperior.dscommerce.util.ExpiringCache;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,8 +13,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -25,6 +29,9 @@ public class CategoryServiceTests {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Spy
+    private ExpiringCache<String, CategorySnapshotDTO> categoryCache = new ExpiringCache<>(1, Duration.ofMinutes(1));
+
     private Category category;
     private List<Category> categories;
 
@@ -44,4 +51,33 @@ public class CategoryServiceTests {
         Assertions.assertEquals(categoriesDTO.get(0).getId(), category.getId());
         Assertions.assertEquals(categoriesDTO.get(0).getName(), category.getName());
     }
+
+    @Test
+    public void findSnapshotShouldReadDatabaseOnlyOnceWhileCached() {
+        CategorySnapshotDTO first = categoryService.findSnapshot();
+        CategorySnapshotDTO second = categoryService.findSnapshot();
+
+        Assertions.assertSame(first, second);
+        Mockito.verify(categoryRepository, Mockito.times(1)).findAll();
+    }
+
+    @Test
+    public void findSnapshotShouldChangeETagWhenCategoriesChange() {
+        String eTag = categoryService.findSnapshot().getETag();
+
+        categories.add(CategoryFactory.createCategory(2L, "Livros"));
+        categoryService.evictCache();
+
+        Assertions.assertNotEquals(eTag, categoryService.findSnapshot().getETag());
+        Mockito.verify(categoryRepository, Mockito.times(2)).findAll();
+    }
+
+    @Test
+    public void findSnapshotShouldKeepETagWhenCategoriesAreUnchanged() {
+        String eTag = categoryService.findSnapshot().getETag();
+
+        categoryService.evictCache();
+
+        Assertions.assertEquals(eTag, categoryService.findSnapshot().getETag());
+    }
 }
@@ -0,0 +1,188 @@
+package com.devsuperior.dscommerce.services;
+
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
+import com.devsuperior.dscommerce.services.exceptions.ConflictException;
+import com.devsuperior.dscommerce.services.exceptions.ResultPendingException;
+import com.devsuperior.dscommerce.services.exceptions.UnprocessableEntityException;
+import com.devsuperior.dscommerce.util.CustomUserUtil;
+import com.devsuperior.dscommerce.util.ExpiringCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ExtendWith(SpringExtension.class)
+public class IdempotencyServiceTests {
+
+    @InjectMocks
+    private IdempotencyService service;
+
+    @Spy
+    private ExpiringCache<String, IdempotencyService.Entry> idempotencyCache = new ExpiringCache<>(10, Duration.ofSeconds(60));
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private CustomUserUtil customUserUtil;
+
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        executions = new AtomicInteger();
+        Mockito.when(customUserUtil.getLoggedUsername()).thenReturn("maria@gmail.com");
+        ReflectionTestUtils.setField(service, "waitTimeoutMs", 5000L);
+    }
+
+    @Test
+    public void executeShouldRunActionOnceAndReplayResultForSameKey() {
+        Long first = service.execute("orders", "abc", "request", () -> (long) executions.incrementAndGet());
+        Long second = service.execute("orders", "abc", "request", () -> (long) executions.incrementAndGet());
+
+        Assertions.assertEquals(first, 1L);
+        Assertions.assertEquals(second, 1L);
+        Assertions.assertEquals(executions.get(), 1);
+    }
+
+    @Test
+    public void executeShouldRunActionAgainForOtherUser() {
+        service.execute("orders", "abc", "request", () -> executions.incrementAndGet());
+        Mockito.when(customUserUtil.getLoggedUsername()).thenReturn("alex@gmail.com");
+        service.execute("orders", "abc", "request", () -> executions.incrementAndGet());
+
+        Assertions.assertEquals(executions.get(), 2);
+    }
+
+    @Test
+    public void executeShouldFreeKeyWhenActionFails() {
+        Assertions.assertThrows(IllegalStateException.class, () -> {
+            service.execute("orders", "abc", "request", () -> {
+                throw new IllegalStateException();
+            });
+        });
+
+        Integer result = service.execute("orders", "abc", "request", () -> executions.incrementAndGet());
+
+        Assertions.assertEquals(result, 1);
+    }
+
+    @Test
+    public void executeShouldReplayPendingResultInsteadOfRunningActionAgain() {
+        CompletableFuture<Integer> pending = new CompletableFuture<>();
+        Assertions.assertThrows(ResultPendingException.class, () -> {
+            service.execute("orders", "abc", "request", () -> {
+                executions.incrementAndGet();
+                throw new ResultPendingException("Pedido em gravação", pending);
+            });
+        });
+        pending.complete(42);
+
+        Integer result = service.execute("orders", "abc", "request", () -> executions.incrementAndGet());
+
+        Assertions.assertEquals(result, 42);
+        Assertions.assertEquals(executions.get(), 1);
+    }
+
+    @Test
+    public void executeShouldFreeKeyWhenPendingResultFails() {
+        CompletableFuture<Integer> pending = new CompletableFuture<>();
+        Assertions.assertThrows(ResultPendingException.class, () -> {
+            service.execute("orders", "abc", "request", () -> {
+                throw new ResultPendingException("Pedido em gravação", pending);
+            });
+        });
+        pending.completeExceptionally(new IllegalStateException());
+
+        Integer result = service.execute("orders", "abc", "request", () -> executions.incrementAndGet());
+
+        Assertions.assertEquals(result, 1);
+    }
+
+    @Test
+    public void executeShouldCoalesceConcurrentRequestsWithSameKey() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = executor.submit(() -> service.execute("orders", "abc", "request", () -> {
+                started.countDown();
+                await(release);
+                return executions.incrementAndGet();
+            }));
+            Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<Integer> second = executor.submit(() -> service.execute("orders", "abc", "request", () -> executions.incrementAndGet()));
+            release.countDown();
+
+            Assertions.assertEquals(first.get(5, TimeUnit.SECONDS), 1);
+            Assertions.assertEquals(second.get(5, TimeUnit.SECONDS), 1);
+            Assertions.assertEquals(executions.get(), 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void executeShouldThrowUnprocessableEntityExceptionWhenKeyIsReusedWithOtherRequest() {
+        service.execute("orders", "abc", "request", () -> executions.incrementAndGet());
+
+        Assertions.assertThrows(UnprocessableEntityException.class, () -> {
+            service.execute("orders", "abc", "other request", () -> executions.incrementAndGet());
+        });
+        Assertions.assertEquals(executions.get(), 1);
+    }
+
+    @Test
+    public void executeShouldThrowConflictExceptionWhenFirstRequestIsStillRunning() throws Exception {
+        ReflectionTestUtils.setField(service, "waitTimeoutMs", 100L);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> service.execute("orders", "abc", "request", () -> {
+                started.countDown();
+                await(release);
+                return executions.incrementAndGet();
+            }));
+            Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Assertions.assertThrows(ConflictException.class, () -> {
+                service.execute("orders", "abc", "request", () -> executions.incrementAndGet());
+            });
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void executeShouldThrowBadRequestExceptionWhenKeyIsBlank() {
+        Assertions.assertThrows(BadRequestException.class, () -> {
+            service.execute("orders", " ", "request", () -> executions.incrementAndGet());
+        });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.devsuperior.dscommerce.services;
+
+import com.devsuperior.dscommerce.dto.OrderDTO;
+import com.devsuperior.dscommerce.entities.Order;
+import com.devsuperior.dscommerce.entities.User;
+import com.devsuperior.dscommerce.services.exceptions.ResultPendingException;
+import com.devsuperior.dscommerce.services.exceptions.ServiceUnavailableException;
+import com.devsuperior.dscommerce.services.exceptions.ValidationException;
+import com.devsuperior.dscommerce.tests.OrderFactory;
+import com.devsuperior.dscommerce.tests.UserFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(SpringExtension.class)
+public class OrderIngestionPipelineTests {
+
+    @InjectMocks
+    private OrderIngestionPipeline pipeline;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private User client;
+    private OrderDTO orderDTO, invalidOrderDTO;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        client = UserFactory.createCustomClientUser(2L, "Bob");
+        Order order = OrderFactory.createOrder(client);
+        orderDTO = new OrderDTO(order);
+        order.setId(2L);
+        invalidOrderDTO = new OrderDTO(order);
+
+        Mockito.when(orderService.insert(eq(orderDTO), any())).thenReturn(orderDTO);
+        Mockito.when(orderService.insert(eq(invalidOrderDTO), any())).thenThrow(new ValidationException("Dados inválidos", List.of()));
+
+        ReflectionTestUtils.setField(pipeline, "enabled", true);
+        ReflectionTestUtils.setField(pipeline, "batchSize", 3);
+        ReflectionTestUtils.setField(pipeline, "maxWaitMs", 500L);
+        ReflectionTestUtils.setField(pipeline, "queueCapacity", 10);
+        ReflectionTestUtils.setField(pipeline, "timeoutMs", 5000L);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        pipeline.stop();
+    }
+
+    @Test
+    public void submitShouldWriteQueuedOrdersInOneTransaction() throws Exception {
+        pipeline.start();
+
+        CompletableFuture<OrderDTO> first = pipeline.submit(orderDTO, client);
+        CompletableFuture<OrderDTO> second = pipeline.submit(orderDTO, client);
+        CompletableFuture<OrderDTO> third = pipeline.submit(orderDTO, client);
+
+        Assertions.assertEquals(first.get(5, TimeUnit.SECONDS).getId(), orderDTO.getId());
+        Assertions.assertEquals(second.get(5, TimeUnit.SECONDS).getId(), orderDTO.getId());
+        Assertions.assertEquals(third.get(5, TimeUnit.SECONDS).getId(), orderDTO.getId());
+        Mockito.verify(transactionManager, Mockito.times(1)).getTransaction(any());
+        Mockito.verify(transactionManager, Mockito.times(1)).commit(any());
+    }
+
+    @Test
+    public void submitShouldFailOnlyInvalidOrderWhenBatchFails() throws Exception {
+        ReflectionTestUtils.setField(pipeline, "batchSize", 2);
+        pipeline.start();
+
+        CompletableFuture<OrderDTO> valid = pipeline.submit(orderDTO, client);
+        CompletableFuture<OrderDTO> invalid = pipeline.submit(invalidOrderDTO, client);
+
+        Assertions.assertEquals(valid.get(5, TimeUnit.SECONDS).getId(), orderDTO.getId());
+        CompletionException e = Assertions.assertThrows(CompletionException.class, invalid::join);
+        Assertions.assertInstanceOf(ValidationException.class, e.getCause());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void writeShouldNotRetryOrdersAlreadyFailedWhenBatchFails() throws Exception {
+        // queue only, no writer thread, so the batch is written by hand
+        ReflectionTestUtils.setField(pipeline, "enabled", false);
+        pipeline.start();
+        ReflectionTestUtils.setField(pipeline, "running", true);
+        CompletableFuture<OrderDTO> failed = pipeline.submit(orderDTO, client);
+        pipeline.submit(invalidOrderDTO, client);
+        Mockito.when(orderService.insert(eq(invalidOrderDTO), any())).thenAnswer(invocation -> {
+            failed.completeExceptionally(new ServiceUnavailableException("Serviço em desligamento"));
+            throw new ValidationException("Dados inválidos", List.of());
+        });
+        List<OrderIngestionPipeline.PendingOrder> batch = new ArrayList<>();
+        ((BlockingQueue<OrderIngestionPipeline.PendingOrder>) ReflectionTestUtils.getField(pipeline, "queue")).drainTo(batch);
+
+        pipeline.write(batch);
+
+        // only the batch attempt; the fallback skips the order that already failed
+        Mockito.verify(orderService, Mockito.times(1)).insert(eq(orderDTO), any());
+        CompletionException e = Assertions.assertThrows(CompletionException.class, failed::join);
+        Assertions.assertInstanceOf(ServiceUnavailableException.class, e.getCause());
+    }
+
+    @Test
+    public void submitShouldThrowServiceUnavailableExceptionWhenQueueIsFull() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        OrderDTO slowOrderDTO = new OrderDTO(OrderFactory.createOrder(client));
+        Mockito.when(orderService.insert(eq(slowOrderDTO), any())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return slowOrderDTO;
+        });
+        ReflectionTestUtils.setField(pipeline, "batchSize", 1);
+        ReflectionTestUtils.setField(pipeline, "queueCapacity", 1);
+        pipeline.start();
+
+        pipeline.submit(slowOrderDTO, client);
+        Assertions.assertTrue(writing.await(5, TimeUnit.SECONDS));
+        pipeline.submit(orderDTO, client);
+
+        Assertions.assertThrows(ServiceUnavailableException.class, () -> {
+            pipeline.submit(orderDTO, client);
+        });
+        release.countDown();
+    }
+
+    @Test
+    public void submitShouldThrowServiceUnavailableExceptionWhenDisabled() {
+        ReflectionTestUtils.setField(pipeline, "enabled", false);
+        pipeline.start();
+
+        Assertions.assertThrows(ServiceUnavailableException.class, () -> {
+            pipeline.submit(orderDTO, client);
+        });
+    }
+
+    @Test
+    public void insertShouldThrowResultPendingExceptionWhenWriteTimesOut() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        OrderDTO slowOrderDTO = new OrderDTO(OrderFactory.createOrder(client));
+        Mockito.when(userService.authenticated()).thenReturn(client);
+        Mockito.when(orderService.insert(eq(slowOrderDTO), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return slowOrderDTO;
+        });
+        ReflectionTestUtils.setField(pipeline, "batchSize", 1);
+        ReflectionTestUtils.setField(pipeline, "timeoutMs", 100L);
+        pipeline.start();
+
+        ResultPendingException e;
+        try {
+            e = Assertions.assertThrows(ResultPendingException.class, () -> {
+                pipeline.insert(slowOrderDTO);
+            });
+        } finally {
+            release.countDown();
+        }
+
+        Assertions.assertSame(e.getResult().get(5, TimeUnit.SECONDS), slowOrderDTO);
+    }
+
+    @Test
+    public void insertShouldWithdrawOrderWhenItTimesOutBeforeBeingWritten() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        OrderDTO slowOrderDTO = new OrderDTO(OrderFactory.createOrder(client));
+        Mockito.when(userService.authenticated()).thenReturn(client);
+        Mockito.when(orderService.insert(eq(slowOrderDTO), any())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return slowOrderDTO;
+        });
+        ReflectionTestUtils.setField(pipeline, "batchSize", 1);
+        ReflectionTestUtils.setField(pipeline, "timeoutMs", 100L);
+        pipeline.start();
+
+        CompletableFuture<OrderDTO> slow = pipeline.submit(slowOrderDTO, client);
+        Assertions.assertTrue(writing.await(5, TimeUnit.SECONDS));
+        try {
+            ServiceUnavailableException e = Assertions.assertThrows(ServiceUnavailableException.class, () -> {
+                pipeline.insert(orderDTO);
+            });
+            Assertions.assertFalse(e instanceof ResultPendingException);
+        } finally {
+            release.countDown();
+        }
+
+        slow.get(5, TimeUnit.SECONDS);
+        // once a later order is written, the writer has already passed the withdrawn one
+        CompletableFuture<OrderDTO> next = pipeline.submit(invalidOrderDTO, client);
+        Assertions.assertThrows(ExecutionException.class, () -> next.get(5, TimeUnit.SECONDS));
+        Mockito.verify(orderService, Mockito.never()).insert(eq(orderDTO), any());
+    }
+
+    @Test
+    public void submitShouldFailBatchAndKeepWritingWhenWriteThrowsError() throws Exception {
+        OrderDTO brokenOrderDTO = new OrderDTO(OrderFactory.createOrder(client));
+        Mockito.when(orderService.insert(eq(brokenOrderDTO), any())).thenThrow(new StackOverflowError());
+        ReflectionTestUtils.setField(pipeline, "batchSize", 1);
+        pipeline.start();
+
+        CompletableFuture<OrderDTO> broken = pipeline.submit(brokenOrderDTO, client);
+        CompletionException e = Assertions.assertThrows(CompletionException.class, broken::join);
+        Assertions.assertInstanceOf(StackOverflowError.class, e.getCause());
+
+        CompletableFuture<OrderDTO> next = pipeline.submit(orderDTO, client);
+        Assertions.assertEquals(next.get(5, TimeUnit.SECONDS).getId(), orderDTO.getId());
+    }
+
+    @Test
+    public void stopShouldFailQueuedAndInFlightOrders() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        OrderDTO slowOrderDTO = new OrderDTO(OrderFactory.createOrder(client));
+        Mockito.when(orderService.insert(eq(slowOrderDTO), any())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return slowOrderDTO;
+        });
+        ReflectionTestUtils.setField(pipeline, "batchSize", 1);
+        pipeline.start();
+
+        CompletableFuture<OrderDTO> inFlight = pipeline.submit(slowOrderDTO, client);
+        Assertions.assertTrue(writing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<OrderDTO> queued = pipeline.submit(orderDTO, client);
+
+        try {
+            pipeline.stop();
+
+            CompletionException e = Assertions.assertThrows(CompletionException.class, inFlight::join);
+            Assertions.assertInstanceOf(ServiceUnavailableException.class, e.getCause());
+            e = Assertions.assertThrows(CompletionException.class, queued::join);
+            Assertions.assertInstanceOf(ServiceUnavailableException.class, e.getCause());
+        } finally {
+            release.countDown();
+        }
+    }
+}
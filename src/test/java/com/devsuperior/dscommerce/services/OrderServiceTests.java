@@ -1,19 +1,23 @@
 package com.devsuperior.dscommerce.services;
 
+import com.devsuperior.dscommerce.dto.CursorPageDTO;
 import com.devsuperior.dscommerce.dto.OrderDTO;
 import com.devsuperior.dscommerce.entities.Order;
 import com.devsuperior.dscommerce.entities.OrderItem;
+import com.devsuperior.dscommerce.entities.Payment;
 import com.devsuperior.dscommerce.entities.Product;
 import com.devsuperior.dscommerce.entities.User;
 import com.devsuperior.dscommerce.repositories.OrderItemRepository;
 import com.devsuperior.dscommerce.repositories.OrderRepository;
+import com.devsuperior.dscommerce.repositories.PaymentRepository;
 import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
 import com.devsuperior.dscommerce.services.exceptions.ForbiddenException;
 import com.devsuperior.dscommerce.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscommerce.services.exceptions.ValidationException;
 import com.devsuperior.dscommerce.tests.OrderFactory;
 import com.devsuperior.dscommerce.tests.ProductFactory;
 import com.devsuperior.dscommerce.tests.UserFactory;
-import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,10 +25,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -47,6 +54,9 @@ public class OrderServiceTests {
     @Mock
     private OrderItemRepository orderItemRepository;
 
+    @Mock
+    private PaymentRepository paymentRepository;
+
     @Mock
     private UserService userService;
 
@@ -75,11 +85,10 @@ public class OrderServiceTests {
 
         product = ProductFactory.createProduct();
 
-        Mockito.when(orderRepository.findById(existingOrderId)).thenReturn(Optional.of(order));
-        Mockito.when(orderRepository.findById(nonExistingOrderId)).thenReturn(Optional.empty());
+        Mockito.when(orderRepository.searchWithItemsById(existingOrderId)).thenReturn(Optional.of(order));
+        Mockito.when(orderRepository.searchWithItemsById(nonExistingOrderId)).thenReturn(Optional.empty());
 
-        Mockito.when(productRepository.getReferenceById(existingProductId)).thenReturn(product);
-        Mockito.when(productRepository.getReferenceById(nonExistingProductId)).thenThrow(EntityNotFoundException.class);
+        Mockito.when(productRepository.findAllById(any())).thenReturn(List.of(ProductFactory.createProduct()));
 
         Mockito.when(orderRepository.save(any())).thenReturn(order);
 
@@ -96,6 +105,17 @@ public class OrderServiceTests {
         Assertions.assertEquals(result.getId(), existingOrderId);
     }
 
+    @Test
+    public void findByIdShouldReturnPaymentLoadedBySharedId() {
+        Mockito.doNothing().when(authService).validateSelfOrAdmin(any());
+        Mockito.when(paymentRepository.findById(existingOrderId))
+                .thenReturn(Optional.of(new Payment(existingOrderId, Instant.now(), order)));
+
+        OrderDTO result = orderService.findById(existingOrderId);
+
+        Assertions.assertEquals(result.getPayment().getId(), existingOrderId);
+    }
+
     @Test
     public void findByIdShouldReturnOrderDTOWhenIdExistsAndSelfClientLogged() {
         Mockito.doNothing().when(authService).validateSelfOrAdmin(any());
@@ -124,6 +144,44 @@ public class OrderServiceTests {
         });
     }
 
+    @Test
+    public void findMineShouldReturnClientOrdersWithNextCursor() {
+        Mockito.when(userService.authenticated()).thenReturn(client);
+        Mockito.when(orderRepository.searchIdsByClient(any(), any())).thenReturn(List.of(existingOrderId, 5L));
+        Mockito.when(orderRepository.searchWithItemsByIds(any())).thenReturn(List.of(order));
+
+        CursorPageDTO<OrderDTO> result = orderService.findMine("", 1);
+
+        Assertions.assertEquals(result.getContent().size(), 1);
+        Assertions.assertEquals(result.getContent().get(0).getId(), existingOrderId);
+        Assertions.assertNotNull(result.getNextCursor());
+        Mockito.verify(orderRepository).searchWithItemsByIds(List.of(existingOrderId));
+
+        orderService.findMine(result.getNextCursor(), 1);
+        Mockito.verify(orderRepository).searchIdsByClientBefore(client.getId(), order.getMoment(), existingOrderId, PageRequest.of(0, 2));
+    }
+
+    @Test
+    public void findMineShouldReturnEmptyPageWithoutFetchingOrders() {
+        Mockito.when(userService.authenticated()).thenReturn(client);
+        Mockito.when(orderRepository.searchIdsByClient(any(), any())).thenReturn(List.of());
+
+        CursorPageDTO<OrderDTO> result = orderService.findMine("", 12);
+
+        Assertions.assertTrue(result.getContent().isEmpty());
+        Assertions.assertNull(result.getNextCursor());
+        Mockito.verify(orderRepository, Mockito.never()).searchWithItemsByIds(any());
+    }
+
+    @Test
+    public void findMineShouldThrowBadRequestExceptionWhenCursorIsInvalid() {
+        Mockito.when(userService.authenticated()).thenReturn(client);
+
+        Assertions.assertThrows(BadRequestException.class, () -> {
+            orderService.findMine("not-a-cursor", 12);
+        });
+    }
+
     @Test
     public void insertShouldReturnOrderDTOWhenAdminLogged() {
         Mockito.when(userService.authenticated()).thenReturn(admin);
@@ -151,7 +209,7 @@ public class OrderServiceTests {
     }
 
     @Test
-    public void insertShouldThrowsEntityNotFoundExceptionWhenOrderProductIdDoesNotExist() {
+    public void insertShouldThrowsValidationExceptionWhenOrderProductIdDoesNotExist() {
         Mockito.when(userService.authenticated()).thenReturn(client);
 
         product.setId(nonExistingProductId);
@@ -160,8 +218,20 @@ public class OrderServiceTests {
 
         orderDTO = new OrderDTO(order);
 
-        Assertions.assertThrows(EntityNotFoundException.class, () -> {
+        ValidationException e = Assertions.assertThrows(ValidationException.class, () -> {
             OrderDTO result = orderService.insert(orderDTO);
         });
+        Assertions.assertEquals(e.getErrors().size(), 1);
+        Mockito.verify(orderRepository, Mockito.never()).save(any());
+    }
+
+    @Test
+    public void insertShouldLoadAllProductsWithOneQuery() {
+        Mockito.when(userService.authenticated()).thenReturn(client);
+
+        orderService.insert(orderDTO);
+
+        Mockito.verify(productRepository, Mockito.times(1)).findAllById(any());
+        Mockito.verify(productRepository, Mockito.never()).getReferenceById(any());
     }
 }
@@ -0,0 +1,102 @@
+package com.devsuperior.dscommerce.services;
+
+import com.devsuperior.dscommerce.projections.ProductNameProjection;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+@ExtendWith(SpringExtension.class)
+public class ProductSearchIndexTests {
+
+    @InjectMocks
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(productSearchIndex, "enabled", true);
+
+        List<ProductNameProjection> names = List.of(
+                createProjection(1L, "Eletrônicos Básicos"),
+                createProjection(2L, "Macbook Pro"),
+                createProjection(3L, "PC Gamer"));
+        Mockito.when(productRepository.searchAllNames()).thenReturn(names);
+
+        productSearchIndex.rebuild();
+    }
+
+    @Test
+    public void searchShouldIgnoreAccentsAndCase() {
+        Assertions.assertEquals(Set.of(1L), productSearchIndex.search("ELETRONICOS"));
+        Assertions.assertEquals(Set.of(1L), productSearchIndex.search("básico"));
+    }
+
+    @Test
+    public void searchShouldMatchSubstringInTheMiddleOfTheName() {
+        Assertions.assertEquals(Set.of(2L), productSearchIndex.search("book"));
+    }
+
+    @Test
+    public void supportsShouldRejectQueriesShorterThanAGramAndUnsortableProperties() {
+        Assertions.assertFalse(productSearchIndex.supports("pc", Sort.unsorted()));
+        Assertions.assertFalse(productSearchIndex.supports("book", Sort.by("price")));
+        Assertions.assertTrue(productSearchIndex.supports("book", Sort.by("name")));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> productSearchIndex.search("pc"));
+    }
+
+    @Test
+    public void searchShouldOrderMatchesBySort() {
+        productSearchIndex.put(4L, "Macbook Air");
+
+        Assertions.assertEquals(List.of(2L, 4L), productSearchIndex.search("macbook", Sort.unsorted()));
+        Assertions.assertEquals(List.of(4L, 2L), productSearchIndex.search("macbook", Sort.by("name")));
+        Assertions.assertEquals(List.of(4L, 2L), productSearchIndex.search("macbook", Sort.by("id").descending()));
+    }
+
+    @Test
+    public void searchShouldReturnEmptyWhenNothingMatches() {
+        Assertions.assertTrue(productSearchIndex.search("playstation").isEmpty());
+    }
+
+    @Test
+    public void putShouldReplacePreviousNameOfProduct() {
+        productSearchIndex.put(2L, "Macbook Air");
+
+        Assertions.assertTrue(productSearchIndex.search("pro").isEmpty());
+        Assertions.assertEquals(Set.of(2L), productSearchIndex.search("air"));
+    }
+
+    @Test
+    public void removeShouldDropProductFromResults() {
+        productSearchIndex.remove(3L);
+
+        Assertions.assertTrue(productSearchIndex.search("gamer").isEmpty());
+    }
+
+    private static ProductNameProjection createProjection(Long id, String name) {
+        return new ProductNameProjection() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
@@ -1,12 +1,18 @@
 package com.devsuperior.dscommerce.services;
 
+import com.devsuperior.dscommerce.dto.CursorPageDTO;
+import com.devsuperior.dscommerce.dto.ProductBatchDTO;
+import com.devsuperior.dscommerce.dto.ProductCountDTO;
 import com.devsuperior.dscommerce.dto.ProductDTO;
 import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.dto.ProductVersionDTO;
 import com.devsuperior.dscommerce.entities.Product;
 import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
 import com.devsuperior.dscommerce.services.exceptions.DatabaseException;
 import com.devsuperior.dscommerce.services.exceptions.ResourceNotFoundException;
 import com.devsuperior.dscommerce.tests.ProductFactory;
+import com.devsuperior.dscommerce.util.ExpiringCache;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,16 +21,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.mockito.ArgumentMatchers.any;
 
@@ -37,11 +49,20 @@ public class ProductServiceTests {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Spy
+    private ExpiringCache<Long, ProductDTO> productCache = new ExpiringCache<>(10, Duration.ofSeconds(60));
+
+    @Spy
+    private ExpiringCache<String, Long> productCountCache = new ExpiringCache<>(10, Duration.ofSeconds(60));
+
     private Long existingProductId, nomExistingProductId, dependentProductId;
     private String productName;
     private Product product;
     private ProductDTO productDTO;
-    private PageImpl<Product> page;
+    private PageImpl<ProductMinDTO> page;
 
     @BeforeEach
     public void setUp() throws Exception {
@@ -53,16 +74,21 @@ public class ProductServiceTests {
 
         product = ProductFactory.createProduct(productName);
         productDTO = new ProductDTO(product);
-        page = new PageImpl<>(List.of(product));
+        page = new PageImpl<>(List.of(new ProductMinDTO(product)));
 
         Mockito.when(productRepository.findById(existingProductId)).thenReturn(Optional.of(product));
         Mockito.when(productRepository.findById(nomExistingProductId)).thenReturn(Optional.empty());
 
+
         Mockito.when(productRepository.searchByName(any(), (Pageable) any())).thenReturn(page);
 
         Mockito.when(productRepository.save(any())).thenReturn(product);
+        Mockito.when(productRepository.saveAndFlush(any())).thenReturn(product);
 
         Mockito.when(productRepository.getReferenceById(existingProductId)).thenReturn(product);
+        Mockito.when(productRepository.searchVersionById(existingProductId))
+                .thenReturn(Optional.of(new ProductVersionDTO(existingProductId, 0, Instant.now())));
+        Mockito.when(productRepository.searchVersionById(nomExistingProductId)).thenReturn(Optional.empty());
         Mockito.when(productRepository.getReferenceById(nomExistingProductId)).thenThrow(EntityNotFoundException.class);
 
 
@@ -84,6 +110,43 @@ public class ProductServiceTests {
         Assertions.assertEquals(productDTO.getName(), product.getName());
     }
 
+    @Test
+    public void findByIdShouldReturnVersionAndUpdatedAtOfLoadedProduct() {
+        product.touch();
+
+        ProductDTO result = productService.findById(existingProductId);
+
+        Assertions.assertEquals(result.getVersion(), product.getVersion());
+        Assertions.assertEquals(result.getUpdatedAt(), product.getUpdatedAt());
+    }
+
+    @Test
+    public void findVersionShouldUseVersionQueryWithoutLoadingProductWhenNotCached() {
+        ProductVersionDTO result = productService.findVersion(existingProductId);
+
+        Assertions.assertEquals(result.getETag(), existingProductId + "-0");
+        Mockito.verify(productRepository, Mockito.never()).findById(any());
+    }
+
+    @Test
+    public void findVersionShouldMatchCachedProductWhenCached() {
+        product.touch();
+        ProductDTO cached = productService.findById(existingProductId);
+
+        ProductVersionDTO result = productService.findVersion(existingProductId);
+
+        Assertions.assertEquals(result.getETag(), new ProductVersionDTO(cached).getETag());
+        Assertions.assertEquals(result.getLastModified(), product.getUpdatedAt().toEpochMilli());
+        Mockito.verify(productRepository, Mockito.never()).searchVersionById(any());
+    }
+
+    @Test
+    public void findVersionShouldReturnResourceNotFoundExceptionWhenIdDoesNotExist() {
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+            productService.findVersion(nomExistingProductId);
+        });
+    }
+
     @Test
     public void findByIdShouldReturnResourceNotFoundExceptionWhenIdDoesNotExist() {
         Assertions.assertThrows(ResourceNotFoundException.class, () -> {
@@ -91,6 +154,117 @@ public class ProductServiceTests {
         });
     }
 
+    @Test
+    public void findByIdShouldReadDatabaseOnlyOnceWhileCached() {
+        productService.findById(existingProductId);
+        ProductDTO result = productService.findById(existingProductId);
+
+        Assertions.assertEquals(result.getId(), existingProductId);
+        Mockito.verify(productRepository, Mockito.times(1)).findById(existingProductId);
+        Assertions.assertEquals(productCache.getHits(), 1L);
+        Assertions.assertEquals(productCache.getMisses(), 1L);
+    }
+
+    @Test
+    public void findByIdShouldBypassCacheInsideReadWriteTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        try {
+            productService.findById(existingProductId);
+            productService.findById(existingProductId);
+        } finally {
+            TransactionSynchronizationManager.clear();
+        }
+
+        Mockito.verify(productRepository, Mockito.times(2)).findById(existingProductId);
+        Assertions.assertNull(productCache.get(existingProductId));
+    }
+
+    @Test
+    public void findByIdShouldUseCacheInsideReadOnlyTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            productService.findById(existingProductId);
+            productService.findById(existingProductId);
+        } finally {
+            TransactionSynchronizationManager.clear();
+        }
+
+        Mockito.verify(productRepository, Mockito.times(1)).findById(existingProductId);
+    }
+
+    @Test
+    public void findByIdShouldReadDatabaseAgainAfterUpdate() {
+        productService.findById(existingProductId);
+        productService.update(existingProductId, productDTO);
+        productService.findById(existingProductId);
+
+        Mockito.verify(productRepository, Mockito.times(2)).findById(existingProductId);
+    }
+
+    @Test
+    public void findAllByIdsShouldReturnProductsInRequestOrderAndReportMissingIds() {
+        Product other = ProductFactory.createProduct("Playstation 4");
+        other.setId(5L);
+        Mockito.when(productRepository.searchWithCategoriesByIds(any())).thenReturn(List.of(product, other));
+
+        ProductBatchDTO result = productService.findAllByIds(List.of(5L, nomExistingProductId, existingProductId, 5L));
+
+        Assertions.assertEquals(result.getContent().size(), 2);
+        Assertions.assertEquals(result.getContent().get(0).getId(), 5L);
+        Assertions.assertEquals(result.getContent().get(1).getId(), existingProductId);
+        Assertions.assertEquals(result.getMissing(), List.of(nomExistingProductId));
+        Mockito.verify(productRepository, Mockito.times(1)).searchWithCategoriesByIds(any());
+    }
+
+    @Test
+    public void findAllByIdsShouldLoadOnlyIdsMissingFromCache() {
+        Mockito.when(productRepository.searchWithCategoriesByIds(any())).thenReturn(List.of());
+        productService.findById(existingProductId);
+
+        ProductBatchDTO result = productService.findAllByIds(List.of(existingProductId, nomExistingProductId));
+
+        Assertions.assertEquals(result.getContent().get(0).getId(), existingProductId);
+        Mockito.verify(productRepository).searchWithCategoriesByIds(List.of(nomExistingProductId));
+    }
+
+    @Test
+    public void findAllByIdsShouldCacheLoadedProducts() {
+        Mockito.when(productRepository.searchWithCategoriesByIds(any())).thenReturn(List.of(product));
+
+        productService.findAllByIds(List.of(existingProductId));
+        ProductDTO result = productService.findById(existingProductId);
+
+        Assertions.assertEquals(result.getId(), existingProductId);
+        Mockito.verify(productRepository, Mockito.never()).findById(any());
+    }
+
+    @Test
+    public void findAllByIdsShouldBypassCacheInsideReadWriteTransaction() {
+        Mockito.when(productRepository.searchWithCategoriesByIds(any())).thenReturn(List.of(product));
+        productService.findById(existingProductId);
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        try {
+            productService.findAllByIds(List.of(existingProductId, nomExistingProductId));
+        } finally {
+            TransactionSynchronizationManager.clear();
+        }
+
+        Mockito.verify(productRepository).searchWithCategoriesByIds(List.of(existingProductId, nomExistingProductId));
+    }
+
+    @Test
+    public void findAllByIdsShouldThrowBadRequestExceptionWhenTooManyIds() {
+        List<Long> ids = LongStream.rangeClosed(1, 101).boxed().toList();
+
+        Assertions.assertThrows(BadRequestException.class, () -> {
+            productService.findAllByIds(ids);
+        });
+    }
+
     @Test
     public void findAllShouldReturnPagedProductMinDTO () {
         Pageable pageable = PageRequest.of(0,12);
@@ -101,6 +275,106 @@ public class ProductServiceTests {
         Assertions.assertEquals(result.iterator().next().getName(), productName);
     }
 
+    @Test
+    public void findAllShouldQueryOnlyCurrentPageIdsWhenSearchIndexEnabled () {
+        Pageable pageable = PageRequest.of(1, 2);
+        Mockito.when(productSearchIndex.isEnabled()).thenReturn(true);
+        Mockito.when(productSearchIndex.supports(productName, pageable.getSort())).thenReturn(true);
+        Mockito.when(productSearchIndex.search(productName, pageable.getSort()))
+                .thenReturn(List.of(10L, 11L, existingProductId, 13L, 14L));
+        Mockito.when(productRepository.searchMinByIds(List.of(existingProductId, 13L)))
+                .thenReturn(List.of(new ProductMinDTO(product)));
+
+        Page<ProductMinDTO> result = productService.findAll(productName, pageable);
+
+        Assertions.assertEquals(5L, result.getTotalElements());
+        Assertions.assertEquals(result.iterator().next().getName(), productName);
+        Mockito.verify(productRepository).searchMinByIds(List.of(existingProductId, 13L));
+        Mockito.verify(productRepository, Mockito.never()).searchByName(any(), any());
+    }
+
+    @Test
+    public void findAllShouldUseDatabaseWhenSearchIndexDoesNotSupportQuery () {
+        Pageable pageable = PageRequest.of(0,12);
+        Mockito.when(productSearchIndex.isEnabled()).thenReturn(true);
+        Mockito.when(productSearchIndex.supports(any(), any())).thenReturn(false);
+
+        productService.findAll("pc", pageable);
+
+        Mockito.verify(productRepository).searchByName("pc", pageable);
+        Mockito.verify(productSearchIndex, Mockito.never()).search(any(), any());
+    }
+
+    @Test
+    public void findAllSliceShouldReturnSliceWithoutCounting () {
+        Pageable pageable = PageRequest.of(0,12);
+        Mockito.when(productRepository.searchSliceByName(any(), (Pageable) any()))
+                .thenReturn(new SliceImpl<>(List.of(new ProductMinDTO(product)), pageable, true));
+
+        Slice<ProductMinDTO> result = productService.findAllSlice(productName, pageable);
+
+        Assertions.assertTrue(result.hasNext());
+        Assertions.assertEquals(result.iterator().next().getName(), productName);
+        Mockito.verify(productRepository, Mockito.never()).searchByName(any(), any());
+        Mockito.verify(productRepository, Mockito.never()).countSearchByName(any());
+    }
+
+    @Test
+    public void countShouldQueryDatabaseOnlyOnceWhileCached () {
+        Mockito.when(productRepository.countSearchByName(productName)).thenReturn(7L);
+
+        ProductCountDTO first = productService.count(productName);
+        ProductCountDTO second = productService.count(productName);
+
+        Assertions.assertEquals(first.getTotal(), 7L);
+        Assertions.assertEquals(second.getTotal(), 7L);
+        Mockito.verify(productRepository, Mockito.times(1)).countSearchByName(productName);
+    }
+
+    @Test
+    public void countShouldQueryDatabaseAgainAfterInsert () {
+        Mockito.when(productRepository.countSearchByName(productName)).thenReturn(7L);
+
+        productService.count(productName);
+        productService.insert(productDTO);
+        productService.count(productName);
+
+        Mockito.verify(productRepository, Mockito.times(2)).countSearchByName(productName);
+    }
+
+    @Test
+    public void findAllByCursorShouldReturnNextCursorWhenThereAreMoreResults () {
+        Product other = ProductFactory.createProduct("Playstation 4");
+        other.setId(2L);
+        Mockito.when(productRepository.searchByNameAfterId(any(), any(), any())).thenReturn(List.of(new ProductMinDTO(product), new ProductMinDTO(other)));
+
+        CursorPageDTO<ProductMinDTO> result = productService.findAllByCursor("", "id", "", 1);
+
+        Assertions.assertEquals(result.getContent().size(), 1);
+        Assertions.assertEquals(result.getContent().get(0).getId(), product.getId());
+        Assertions.assertNotNull(result.getNextCursor());
+
+        productService.findAllByCursor("", "id", result.getNextCursor(), 1);
+        Mockito.verify(productRepository).searchByNameAfterId("", product.getId(), PageRequest.of(0, 2));
+    }
+
+    @Test
+    public void findAllByCursorShouldReturnNoNextCursorOnLastPage () {
+        Mockito.when(productRepository.searchByNameAfterName(any(), any(), any(), any())).thenReturn(List.of(new ProductMinDTO(product)));
+
+        CursorPageDTO<ProductMinDTO> result = productService.findAllByCursor(productName, "name", "", 12);
+
+        Assertions.assertEquals(result.getContent().size(), 1);
+        Assertions.assertNull(result.getNextCursor());
+    }
+
+    @Test
+    public void findAllByCursorShouldThrowBadRequestExceptionWhenCursorIsInvalid () {
+        Assertions.assertThrows(BadRequestException.class, () -> {
+            productService.findAllByCursor("", "id", "not-a-cursor", 12);
+        });
+    }
+
     @Test
     public void insertShouldReturnProductDTO () {
         ProductDTO result = productService.insert(productDTO);
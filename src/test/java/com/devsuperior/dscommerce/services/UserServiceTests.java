@@ -102,4 +102,24 @@ public class UserServiceTests {
            UserDTO result = spyUserService.getMe();
         });
     }
+
+    @Test
+    public void updatePasswordShouldStoreNewHashWhenUserExists() {
+        UserDetails result = userService.updatePassword(userDetailsFor(existingUsername), "$2a$12$newhash");
+
+        Assertions.assertEquals("$2a$12$newhash", result.getPassword());
+        Assertions.assertEquals("$2a$12$newhash", user.getPassword());
+    }
+
+    @Test
+    public void updatePasswordShouldThrowUsernameNotFoundExceptionWhenUserDoesNotExist() {
+        Assertions.assertThrows(UsernameNotFoundException.class, () -> {
+            userService.updatePassword(userDetailsFor(nonExistingUsername), "$2a$12$newhash");
+        });
+    }
+
+    private UserDetails userDetailsFor(String username) {
+        return org.springframework.security.core.userdetails.User.withUsername(username)
+                .password("$2a$10$oldhash").authorities("ROLE_CLIENT").build();
+    }
 }
@@ -11,8 +11,7 @@ public class OrderFactory {
                 1L,
                 Instant.now(),
                 OrderStatus.WAITING_PAYMENT,
-                client,
-                new Payment()
+                client
         );
 
         Product product = ProductFactory.createProduct();
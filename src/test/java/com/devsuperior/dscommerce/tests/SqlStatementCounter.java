@@ -0,0 +1,46 @@
+package com.devsuperior.dscommerce.tests;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SqlStatementCounter {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    public void reset() {
+        Statistics statistics = getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    public long getCount() {
+        return getStatistics().getPrepareStatementCount();
+    }
+
+    /**
+     * Fails when more statements than the budget were issued since the last reset.
+     */
+    public void assertWithinBudget(long budget) {
+        long count = getCount();
+        Assertions.assertTrue(count <= budget,
+                () -> "Expected at most " + budget + " SQL statements but " + count + " were issued");
+    }
+
+    public long getEntityLoadCount() {
+        return getStatistics().getEntityLoadCount();
+    }
+
+    public long getEntityLoadCount(Class<?> entityClass) {
+        return getStatistics().getEntityStatistics(entityClass.getName()).getLoadCount();
+    }
+
+    private Statistics getStatistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
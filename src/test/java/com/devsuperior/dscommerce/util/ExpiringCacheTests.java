@@ -0,0 +1,63 @@
+package com.devsuperior.dscommerce.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+public class ExpiringCacheTests {
+
+    @Test
+    public void getShouldLoadOnceAndThenHit() {
+        ExpiringCache<Long, String> cache = new ExpiringCache<>(10, Duration.ofMinutes(1));
+
+        Assertions.assertEquals("one", cache.get(1L, x -> "one"));
+        Assertions.assertEquals("one", cache.get(1L, x -> "other"));
+        Assertions.assertEquals(1L, cache.getHits());
+        Assertions.assertEquals(1L, cache.getMisses());
+    }
+
+    @Test
+    public void putShouldEvictLeastRecentlyUsedEntryWhenFull() {
+        ExpiringCache<Long, String> cache = new ExpiringCache<>(2, Duration.ofMinutes(1));
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+        cache.get(1L);
+        cache.put(3L, "three");
+
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertNull(cache.get(2L));
+        Assertions.assertEquals("one", cache.get(1L));
+        Assertions.assertEquals(1L, cache.getEvictions());
+    }
+
+    @Test
+    public void getShouldReturnNullWhenEntryExpired() {
+        ExpiringCache<Long, String> cache = new ExpiringCache<>(10, Duration.ZERO);
+        cache.put(1L, "one");
+
+        Assertions.assertNull(cache.get(1L));
+        Assertions.assertEquals(1L, cache.getExpirations());
+    }
+
+    @Test
+    public void getShouldNotStoreValueLoadedWhileKeyWasInvalidated() {
+        ExpiringCache<Long, String> cache = new ExpiringCache<>(10, Duration.ofMinutes(1));
+
+        String loaded = cache.get(1L, x -> {
+            cache.invalidate(1L);
+            return "stale";
+        });
+
+        Assertions.assertEquals("stale", loaded);
+        Assertions.assertNull(cache.get(1L));
+    }
+
+    @Test
+    public void getShouldNotStoreNullValues() {
+        ExpiringCache<Long, String> cache = new ExpiringCache<>(10, Duration.ofMinutes(1));
+
+        Assertions.assertNull(cache.get(1L, x -> null));
+        Assertions.assertEquals(0, cache.size());
+    }
+}